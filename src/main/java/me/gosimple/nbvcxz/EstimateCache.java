@@ -0,0 +1,275 @@
+package me.gosimple.nbvcxz;
+
+import me.gosimple.nbvcxz.resources.Configuration;
+import me.gosimple.nbvcxz.resources.DetailLevel;
+import me.gosimple.nbvcxz.scoring.EstimateSummary;
+import me.gosimple.nbvcxz.scoring.Result;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.SecureRandom;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded cache in front of {@link Nbvcxz#estimate(String)}, for traffic which estimates the same passwords over
+ * and over, such as common weak passwords, or a password retried after a validation error.
+ * <br><br>
+ * Passwords are never stored.  Entries are keyed by an HMAC-SHA256 of the password, using a secret key, along with
+ * the fingerprint of the {@link Configuration} it was estimated with, so changing the configuration of the
+ * {@code Nbvcxz} never returns a stale result.  Each entry holds an {@link EstimateSummary}, which has no part of the
+ * password in it.
+ * <br><br>
+ * Results which are approximate, because the combination algorithm fell back or the estimate was cut short, are
+ * returned but not cached, so a password estimated while the system is under load isn't stuck with the weaker estimate.
+ * <br><br>
+ * The fingerprint tells password matchers apart by class name only.  A matcher with settings of its own, which change
+ * the matches it finds, must be a different class for each set of settings, or should not be used with a cache which
+ * outlives a change to those settings.
+ * <br><br>
+ * The least recently used entry is evicted once the cache is full, and entries expire once they are older than the
+ * time to live.  This class is thread safe.
+ *
+ * @author Adam Brusselback.
+ */
+public class EstimateCache
+{
+    private final Nbvcxz nbvcxz;
+    private final SecretKeySpec key;
+    private final ThreadLocal<Mac> mac;
+    private final int max_size;
+    private final long ttl_nanos;
+    private final LinkedHashMap<ByteBuffer, Entry> entries;
+    private long hit_count;
+    private long miss_count;
+    private long eviction_count;
+    private long expiration_count;
+
+    /**
+     * Creates a cache with a random secret key, which lasts as long as the cache does.
+     *
+     * @param nbvcxz   the {@code Nbvcxz} to estimate with on a miss.
+     * @param max_size the most entries to keep.
+     * @param ttl      how long an entry is kept, or 0 to keep it until it is evicted.
+     * @param unit     the unit of the time to live.
+     */
+    public EstimateCache(final Nbvcxz nbvcxz, final int max_size, final long ttl, final TimeUnit unit)
+    {
+        this(nbvcxz, generateKey(), max_size, ttl, unit);
+    }
+
+    /**
+     * Creates a cache with the secret key passed in.
+     *
+     * @param nbvcxz     the {@code Nbvcxz} to estimate with on a miss.
+     * @param secret_key the secret key for the HMAC of each password, which should be at least 32 random bytes.
+     * @param max_size   the most entries to keep.
+     * @param ttl        how long an entry is kept, or 0 to keep it until it is evicted.
+     * @param unit       the unit of the time to live.
+     */
+    public EstimateCache(final Nbvcxz nbvcxz, final byte[] secret_key, final int max_size, final long ttl, final TimeUnit unit)
+    {
+        if (max_size < 1)
+        {
+            throw new IllegalArgumentException("The max size must be at least 1.");
+        }
+        if (ttl < 0)
+        {
+            throw new IllegalArgumentException("The time to live must not be negative.");
+        }
+        this.nbvcxz = nbvcxz;
+        this.key = new SecretKeySpec(secret_key, "HmacSHA256");
+        this.mac = new ThreadLocal<Mac>()
+        {
+            @Override
+            protected Mac initialValue()
+            {
+                try
+                {
+                    final Mac mac = Mac.getInstance("HmacSHA256");
+                    mac.init(key);
+                    return mac;
+                }
+                catch (GeneralSecurityException e)
+                {
+                    // Every Java platform is required to support HmacSHA256
+                    throw new IllegalStateException("HmacSHA256 is not available.", e);
+                }
+            }
+        };
+        this.max_size = max_size;
+        this.ttl_nanos = unit.toNanos(ttl);
+        this.entries = new LinkedHashMap<ByteBuffer, Entry>(16, 0.75f, true)
+        {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<ByteBuffer, Entry> eldest)
+            {
+                if (size() > EstimateCache.this.max_size)
+                {
+                    eviction_count++;
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    private static byte[] generateKey()
+    {
+        final byte[] secret_key = new byte[32];
+        new SecureRandom().nextBytes(secret_key);
+        return secret_key;
+    }
+
+    /**
+     * Gets the summary of the estimate for a password from the cache, or estimates it and adds it to the cache.
+     *
+     * @param password The password you would like to attempt to estimate on.
+     * @return the summary of the estimate for the password.
+     */
+    public EstimateSummary estimate(final String password)
+    {
+        final Configuration configuration = nbvcxz.getConfiguration();
+        final ByteBuffer cache_key = getCacheKey(configuration, password);
+        final long now = System.nanoTime();
+
+        synchronized (entries)
+        {
+            final Entry entry = entries.get(cache_key);
+            if (entry != null)
+            {
+                if (ttl_nanos == 0 || now - entry.created < ttl_nanos)
+                {
+                    hit_count++;
+                    return entry.summary;
+                }
+                entries.remove(cache_key);
+                expiration_count++;
+            }
+            miss_count++;
+        }
+
+        // Estimated outside of the lock, so a slow estimate doesn't hold up every other caller
+        final Result result = nbvcxz.estimateWithDetail(password, DetailLevel.FULL);
+        final EstimateSummary summary = new EstimateSummary(result);
+        if (!result.isApproximate())
+        {
+            synchronized (entries)
+            {
+                entries.put(cache_key, new Entry(summary, now));
+            }
+        }
+        return summary;
+    }
+
+    /**
+     * @param configuration the configuration the password is estimated with.
+     * @param password      the password.
+     * @return the HMAC of the configuration fingerprint and password.
+     */
+    private ByteBuffer getCacheKey(final Configuration configuration, final String password)
+    {
+        final Mac hmac = mac.get();
+        hmac.update(configuration.getFingerprint().getBytes(StandardCharsets.UTF_8));
+        hmac.update((byte) 0);
+        hmac.update(password.getBytes(StandardCharsets.UTF_8));
+        return ByteBuffer.wrap(hmac.doFinal());
+    }
+
+    /**
+     * Removes every entry from the cache.  The stats are kept.
+     */
+    public void clear()
+    {
+        synchronized (entries)
+        {
+            entries.clear();
+        }
+    }
+
+    /**
+     * @return the number of entries in the cache, including any which have expired but haven't been looked up since.
+     */
+    public int size()
+    {
+        synchronized (entries)
+        {
+            return entries.size();
+        }
+    }
+
+    /**
+     * @return the number of estimates found in the cache.
+     */
+    public long getHitCount()
+    {
+        synchronized (entries)
+        {
+            return hit_count;
+        }
+    }
+
+    /**
+     * @return the number of estimates not found in the cache, or found after they expired.
+     */
+    public long getMissCount()
+    {
+        synchronized (entries)
+        {
+            return miss_count;
+        }
+    }
+
+    /**
+     * @return the share of estimates found in the cache, from 0 to 1, or 0 if there have been none.
+     */
+    public double getHitRate()
+    {
+        synchronized (entries)
+        {
+            final long count = hit_count + miss_count;
+            return count == 0 ? 0 : (double) hit_count / count;
+        }
+    }
+
+    /**
+     * @return the number of entries removed to make room for newer ones.
+     */
+    public long getEvictionCount()
+    {
+        synchronized (entries)
+        {
+            return eviction_count;
+        }
+    }
+
+    /**
+     * @return the number of entries removed because they were older than the time to live.
+     */
+    public long getExpirationCount()
+    {
+        synchronized (entries)
+        {
+            return expiration_count;
+        }
+    }
+
+    /**
+     * A cached summary, and when it was estimated.
+     */
+    private static class Entry
+    {
+        private final EstimateSummary summary;
+        private final long created;
+
+        Entry(final EstimateSummary summary, final long created)
+        {
+            this.summary = summary;
+            this.created = created;
+        }
+    }
+}
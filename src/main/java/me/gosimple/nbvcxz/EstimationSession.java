@@ -0,0 +1,179 @@
+package me.gosimple.nbvcxz;
+
+import me.gosimple.nbvcxz.matching.IncrementalPasswordMatcher;
+import me.gosimple.nbvcxz.matching.PasswordMatcher;
+import me.gosimple.nbvcxz.matching.match.Match;
+import me.gosimple.nbvcxz.resources.Configuration;
+import me.gosimple.nbvcxz.resources.MatchCollector;
+import me.gosimple.nbvcxz.scoring.Result;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * This class estimates a password as it is being typed, such as for a strength meter which updates on every keystroke.
+ * <br><br>
+ * The matches found by each {@link IncrementalPasswordMatcher} are kept for every index of the password, so when
+ * the password changes, only the matches ending after the first changed character are found again.  Appending a
+ * character only costs the matches ending on it, instead of matching the whole password again.  Other matchers
+ * are run over the whole password every time.
+ * <br><br>
+ * The matches found are the same as calling {@link Nbvcxz#estimate(String)} with the whole password each time, but
+ * the incremental matchers find them in a different order.  When several combinations of matches are equally good,
+ * which one is picked can depend on that order, so the result can differ from {@link Nbvcxz#estimate(String)} for
+ * those passwords.
+ * A session is not thread safe, and should only be used for one password field at a time.
+ *
+ * @author Adam Brusselback
+ */
+public class EstimationSession
+{
+    private final Nbvcxz nbvcxz;
+    private final Configuration configuration;
+    // For each incremental matcher, the matches ending at each index of the matched password
+    private final List<List<List<Match>>> matches_by_end;
+    private final StringBuilder password;
+    private String matched_password;
+    private Result result;
+
+    /**
+     * Creates a new session with an empty password, using the configuration of the {@code Nbvcxz} passed in.
+     *
+     * @param nbvcxz the {@code Nbvcxz} to estimate with.
+     */
+    public EstimationSession(final Nbvcxz nbvcxz)
+    {
+        this.nbvcxz = nbvcxz;
+        this.configuration = nbvcxz.getConfiguration();
+        this.matches_by_end = new ArrayList<>();
+        for (PasswordMatcher passwordMatcher : configuration.getPasswordMatchers())
+        {
+            matches_by_end.add(passwordMatcher instanceof IncrementalPasswordMatcher ? new ArrayList<List<Match>>() : null);
+        }
+        this.password = new StringBuilder();
+        this.matched_password = "";
+        this.result = null;
+    }
+
+    /**
+     * Adds characters to the end of the password, and estimates it.
+     *
+     * @param characters the characters to add.
+     * @return Result object that contains info about the password.
+     */
+    public Result append(final CharSequence characters)
+    {
+        password.append(characters);
+        return estimate();
+    }
+
+    /**
+     * Removes characters from the end of the password, and estimates it.
+     *
+     * @param count the number of characters to remove.
+     * @return Result object that contains info about the password.
+     * @throws IllegalArgumentException if the count is negative, or more than the length of the password.
+     */
+    public Result delete(final int count)
+    {
+        if (count < 0 || count > password.length())
+        {
+            throw new IllegalArgumentException("The count must be between 0 and the length of the password.");
+        }
+        password.setLength(password.length() - count);
+        return estimate();
+    }
+
+    /**
+     * Replaces the whole password, and estimates it.  The matches for the part of the password before the first
+     * character which changed are still kept.
+     *
+     * @param new_password the new password.
+     * @return Result object that contains info about the password.
+     */
+    public Result update(final String new_password)
+    {
+        password.setLength(0);
+        password.append(new_password);
+        return estimate();
+    }
+
+    /**
+     * @return the password as it is now.
+     */
+    public String getPassword()
+    {
+        return password.toString();
+    }
+
+    /**
+     * @return the Result for the password as it is now.
+     */
+    public Result getResult()
+    {
+        if (result == null)
+        {
+            return estimate();
+        }
+        return result;
+    }
+
+    /**
+     * Finds the matches for the part of the password which changed, and estimates the password with them.
+     *
+     * @return Result object that contains info about the password.
+     */
+    private Result estimate()
+    {
+        final String full_password = password.toString();
+        if (configuration.isSplitLongPasswords() && full_password.length() > configuration.getMaxLength())
+        {
+            // Long passwords are split into windows which can move with every change, so they are estimated in full.
+            result = nbvcxz.estimate(full_password);
+            return result;
+        }
+        final String truncated_password = Nbvcxz.getTruncatedPassword(configuration, full_password);
+
+        final long start_time = System.nanoTime();
+
+        // The matches ending before the first changed character stay the same
+        int unchanged = 0;
+        final int common_length = Math.min(matched_password.length(), truncated_password.length());
+        while (unchanged < common_length && matched_password.charAt(unchanged) == truncated_password.charAt(unchanged))
+        {
+            unchanged++;
+        }
+
+        final MatchCollector collector = new MatchCollector(truncated_password.length());
+        final List<PasswordMatcher> passwordMatchers = configuration.getPasswordMatchers();
+        for (int i = 0; i < passwordMatchers.size(); i++)
+        {
+            final PasswordMatcher passwordMatcher = passwordMatchers.get(i);
+            final List<List<Match>> matcher_matches_by_end = matches_by_end.get(i);
+            if (matcher_matches_by_end == null)
+            {
+                collector.addAll(passwordMatcher.match(configuration, truncated_password));
+                continue;
+            }
+
+            final IncrementalPasswordMatcher incrementalMatcher = (IncrementalPasswordMatcher) passwordMatcher;
+            while (matcher_matches_by_end.size() > unchanged)
+            {
+                matcher_matches_by_end.remove(matcher_matches_by_end.size() - 1);
+            }
+            for (int end_index = unchanged; end_index < truncated_password.length(); end_index++)
+            {
+                matcher_matches_by_end.add(incrementalMatcher.matchEndingAt(configuration, truncated_password, end_index));
+            }
+            for (List<Match> matches : matcher_matches_by_end)
+            {
+                collector.addAll(matches);
+            }
+            collector.addAll(incrementalMatcher.matchWholePassword(configuration, truncated_password));
+        }
+        matched_password = truncated_password;
+
+        result = nbvcxz.estimateFromMatches(configuration, truncated_password, full_password, collector.getMatches(), System.nanoTime() - start_time);
+        return result;
+    }
+}
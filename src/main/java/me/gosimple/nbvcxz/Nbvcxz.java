@@ -1,16 +1,34 @@
 package me.gosimple.nbvcxz;
 
 import me.gosimple.nbvcxz.matching.PasswordMatcher;
+import me.gosimple.nbvcxz.matching.match.BaseMatch;
 import me.gosimple.nbvcxz.matching.match.BruteForceMatch;
 import me.gosimple.nbvcxz.matching.match.Match;
 import me.gosimple.nbvcxz.resources.*;
+import me.gosimple.nbvcxz.scoring.EstimationPhase;
+import me.gosimple.nbvcxz.scoring.EstimationStrategy;
 import me.gosimple.nbvcxz.scoring.Result;
 import me.gosimple.nbvcxz.scoring.TimeEstimate;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
 import java.util.*;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.Future;
+import java.util.concurrent.FutureTask;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReference;
 
 /**
  * This class allows you to do estimates on passwords.  It can be instantiated and configured once, and the same
@@ -21,6 +39,9 @@ import java.util.concurrent.TimeoutException;
 public class Nbvcxz
 {
     private static StartIndexComparator comparator = new StartIndexComparator();
+    private static final AtomicLong estimate_count = new AtomicLong();
+    private static final AtomicLongArray strategy_counts = new AtomicLongArray(EstimationStrategy.values().length);
+    private static final AtomicLongArray cut_short_counts = new AtomicLongArray(EstimationPhase.values().length);
     private Configuration configuration;
 
     /**
@@ -61,7 +82,7 @@ public class Nbvcxz
      * @param password
      * @return {@code String} of the truncated password
      */
-    private static String getTruncatedPassword(final Configuration configuration, final String password)
+    static String getTruncatedPassword(final Configuration configuration, final String password)
     {
         if (configuration.getMaxLength().compareTo(password.length()) > 0)
             return password;
@@ -94,6 +115,72 @@ public class Nbvcxz
         return BigDecimal.valueOf(guesses_tmp.isInfinite() ? Double.MAX_VALUE : guesses_tmp).setScale(0, RoundingMode.HALF_UP);
     }
 
+    /**
+     * Gets the number of estimates done by every instance since the counters were last reset.
+     *
+     * @return the number of estimates.
+     */
+    public static long getEstimateCount()
+    {
+        return estimate_count.get();
+    }
+
+    /**
+     * Gets the number of estimates done by every instance which used a strategy, since the counters were last reset.
+     * The number of {@link EstimationStrategy#FALLBACK} estimates shows how often the combination algorithm
+     * couldn't finish.
+     *
+     * @param strategy the strategy to count.
+     * @return the number of estimates which used the strategy.
+     */
+    public static long getStrategyCount(final EstimationStrategy strategy)
+    {
+        return strategy_counts.get(strategy.ordinal());
+    }
+
+    /**
+     * Gets the number of estimates done by every instance which had a phase cut short, since the counters were last
+     * reset.
+     *
+     * @param phase the phase to count.
+     * @return the number of estimates which had the phase cut short.
+     */
+    public static long getCutShortCount(final EstimationPhase phase)
+    {
+        return cut_short_counts.get(phase.ordinal());
+    }
+
+    /**
+     * Resets all of the estimate counters to 0.
+     */
+    public static void resetCounters()
+    {
+        estimate_count.set(0);
+        for (int i = 0; i < strategy_counts.length(); i++)
+        {
+            strategy_counts.set(i, 0);
+        }
+        for (int i = 0; i < cut_short_counts.length(); i++)
+        {
+            cut_short_counts.set(i, 0);
+        }
+    }
+
+    /**
+     * Adds an estimate to the counters.
+     *
+     * @param tracker how the estimate went.
+     */
+    private static void recordEstimate(final EstimationTracker tracker)
+    {
+        estimate_count.incrementAndGet();
+        strategy_counts.incrementAndGet(tracker.strategy.ordinal());
+        for (EstimationPhase phase : tracker.cut_short_phases)
+        {
+            cut_short_counts.incrementAndGet(phase.ordinal());
+        }
+    }
+
     /**
      * Console application which will run with default configurations.
      *
@@ -246,33 +333,332 @@ public class Nbvcxz
      *
      * @param configuration the configuration file used to estimate entropy.
      * @param password      the password you are guessing entropy for.
+     * @param deadline      the deadline for the estimate, or null if there is none.
+     * @param detail_level  how much detail to keep on the result.
+     * @return the {@code Result} of this estimate.
+     */
+    private Result guessEntropy(final Configuration configuration, final String password, final Deadline deadline, final DetailLevel detail_level)
+    {
+        if (configuration.isSplitLongPasswords() && password.length() > configuration.getMaxLength())
+        {
+            return guessEntropyInWindows(configuration, password, deadline, detail_level);
+        }
+
+        final String truncated_password = getTruncatedPassword(configuration, password);
+        final EstimationTracker tracker = new EstimationTracker();
+        final Deadline previous_deadline = Deadline.setCurrent(deadline);
+        try
+        {
+            final long start_time = System.nanoTime();
+            final List<Match> all_matches = getAllMatches(configuration, truncated_password, tracker);
+            tracker.phase_nanos.put(EstimationPhase.MATCHING, System.nanoTime() - start_time);
+
+            return combineMatches(configuration, truncated_password, password, all_matches, tracker, detail_level);
+        }
+        finally
+        {
+            Deadline.setCurrent(previous_deadline);
+        }
+    }
+
+    /**
+     * Calculates the minimum entropy for a password longer than the max length, by splitting it into windows which are
+     * estimated in parallel, and returns that as a Result.
+     * <br><br>
+     * The best combination of matches for each window is found on its own, and the combinations for every window are
+     * put together in order for the whole password.
+     *
+     * @param configuration the configuration file used to estimate entropy.
+     * @param password      the password you are guessing entropy for.
+     * @param deadline      the deadline for the estimate, or null if there is none.
+     * @param detail_level  how much detail to keep on the result.
+     * @return the {@code Result} of this estimate.
+     */
+    private Result guessEntropyInWindows(final Configuration configuration, final String password, final Deadline deadline, final DetailLevel detail_level)
+    {
+        final List<Integer> window_starts = getWindowStarts(password, configuration.getMaxLength());
+        final EstimationTracker[] trackers = new EstimationTracker[window_starts.size()];
+        final List<Callable<List<Match>>> tasks = new ArrayList<>();
+        for (int i = 0; i < window_starts.size(); i++)
+        {
+            final int window_start = window_starts.get(i);
+            final int window_end = i + 1 < window_starts.size() ? window_starts.get(i + 1) : password.length();
+            final EstimationTracker tracker = new EstimationTracker();
+            trackers[i] = tracker;
+            tasks.add(new Callable<List<Match>>()
+            {
+                @Override
+                public List<Match> call()
+                {
+                    final String window = password.substring(window_start, window_end);
+                    final Deadline previous_deadline = Deadline.setCurrent(deadline);
+                    try
+                    {
+                        long start_time = System.nanoTime();
+                        final List<Match> all_matches = getAllMatches(configuration, window, tracker);
+                        tracker.phase_nanos.put(EstimationPhase.MATCHING, System.nanoTime() - start_time);
+
+                        start_time = System.nanoTime();
+                        final BruteForceMatches brute_force_matches = new BruteForceMatches(configuration, window);
+                        final List<Match> matches = getBestCombination(configuration, window, all_matches, brute_force_matches, tracker);
+                        tracker.phase_nanos.put(EstimationPhase.COMBINATION, System.nanoTime() - start_time);
+                        return matches;
+                    }
+                    finally
+                    {
+                        Deadline.setCurrent(previous_deadline);
+                    }
+                }
+            });
+        }
+
+        final List<Future<List<Match>>> futures = SharedPool.invokeAll(tasks);
+
+        // Put the windows back together, moving the matches from each window to where it starts in the password.
+        final EstimationTracker tracker = new EstimationTracker();
+        final List<Match> matches = new ArrayList<>();
+        for (int i = 0; i < futures.size(); i++)
+        {
+            final int window_start = window_starts.get(i);
+            final List<Match> window_matches;
+            try
+            {
+                window_matches = futures.get(i).get();
+            }
+            catch (InterruptedException e)
+            {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while estimating the windows of the password.", e);
+            }
+            catch (ExecutionException e)
+            {
+                throw new IllegalStateException("There was an unexpected error estimating a window of the password.", e.getCause());
+            }
+            for (Match match : window_matches)
+            {
+                final Match moved = match instanceof BaseMatch ? ((BaseMatch) match).withOffset(window_start) : null;
+                if (moved != null)
+                {
+                    matches.add(moved);
+                }
+                else
+                {
+                    // Matches which can't be moved are brute forced instead.
+                    for (int index = match.getStartIndex(); index <= match.getEndIndex(); index++)
+                    {
+                        matches.add(createBruteForceMatch(configuration, password, window_start + index));
+                    }
+                }
+            }
+            tracker.cut_short_phases.addAll(trackers[i].cut_short_phases);
+            for (Map.Entry<EstimationPhase, Long> phase_nanos : trackers[i].phase_nanos.entrySet())
+            {
+                final Long total = tracker.phase_nanos.get(phase_nanos.getKey());
+                tracker.phase_nanos.put(phase_nanos.getKey(), total == null ? phase_nanos.getValue() : total + phase_nanos.getValue());
+            }
+            // Strategies are ordered from most to least accurate, and the least accurate window decides for the password.
+            if (tracker.strategy == null || trackers[i].strategy.compareTo(tracker.strategy) > 0)
+            {
+                tracker.strategy = trackers[i].strategy;
+            }
+        }
+
+        recordEstimate(tracker);
+        return new Result(configuration, password, password, matches, tracker.strategy, tracker.cut_short_phases, tracker.phase_nanos, detail_level);
+    }
+
+    /**
+     * Splits a password into windows of at most the max length.  Each window is cut right after a separator (any
+     * character which isn't a letter or digit) in its second half if there is one, so words are rarely split.
+     * Cuts are never made inside of a surrogate pair.
+     *
+     * @param password   the password to split.
+     * @param max_length the max length of a window.
+     * @return the index each window starts at, in order.
+     */
+    private static List<Integer> getWindowStarts(final String password, final int max_length)
+    {
+        final List<Integer> window_starts = new ArrayList<>();
+        int start = 0;
+        while (start < password.length())
+        {
+            window_starts.add(start);
+            int end = Math.min(password.length(), start + max_length);
+            if (end < password.length())
+            {
+                for (int i = end; i > start + max_length / 2; i--)
+                {
+                    if (!Character.isLetterOrDigit(password.charAt(i - 1)))
+                    {
+                        end = i;
+                        break;
+                    }
+                }
+                // Never cut between the two halves of a surrogate pair
+                if (Character.isLowSurrogate(password.charAt(end)) && Character.isHighSurrogate(password.charAt(end - 1)))
+                {
+                    end = end - 1 > start ? end - 1 : end + 1;
+                }
+            }
+            start = end;
+        }
+        return window_starts;
+    }
+
+    /**
+     * Calculates the minimum entropy for a password from matches which were already found for it, and returns that
+     * as a Result.  This is used by {@link EstimationSession}, which finds the matches itself.
+     *
+     * @param configuration      the configuration file used to estimate entropy.
+     * @param truncated_password the password truncated to the max length.
+     * @param password           the password you are guessing entropy for.
+     * @param all_matches        all matches which have been found for the truncated password.
+     * @param matching_nanos     the time it took to find the matches, in nanoseconds.
      * @return the {@code Result} of this estimate.
      */
-    private Result guessEntropy(final Configuration configuration, final String password)
+    Result estimateFromMatches(final Configuration configuration, final String truncated_password, final String password, final List<Match> all_matches, final long matching_nanos)
+    {
+        final EstimationTracker tracker = new EstimationTracker();
+        tracker.phase_nanos.put(EstimationPhase.MATCHING, matching_nanos);
+        return combineMatches(configuration, truncated_password, password, all_matches, tracker, configuration.getDetailLevel());
+    }
+
+    /**
+     * Finds the best combination of the matches for a password, and returns that as a Result.
+     *
+     * @param configuration      the configuration file used to estimate entropy.
+     * @param truncated_password the password truncated to the max length.
+     * @param password           the password you are guessing entropy for.
+     * @param all_matches        all matches which have been found for the truncated password.
+     * @param tracker            keeps track of how the estimate went.
+     * @param detail_level       how much detail to keep on the result.
+     * @return the {@code Result} of this estimate.
+     */
+    private Result combineMatches(final Configuration configuration, final String truncated_password, final String password, final List<Match> all_matches, final EstimationTracker tracker, final DetailLevel detail_level)
+    {
+        final long start_time = System.nanoTime();
+        final BruteForceMatches brute_force_matches = new BruteForceMatches(configuration, truncated_password);
+        final List<Match> matches = getBestCombination(configuration, truncated_password, all_matches, brute_force_matches, tracker);
+        tracker.phase_nanos.put(EstimationPhase.COMBINATION, System.nanoTime() - start_time);
+
+        recordEstimate(tracker);
+        return new Result(configuration, truncated_password, password, matches, tracker.strategy, tracker.cut_short_phases, tracker.phase_nanos, detail_level);
+    }
+
+    /**
+     * Calculates the minimum entropy for a password without building a {@link Result} for it.
+     *
+     * @param configuration the configuration file used to estimate entropy.
+     * @param password      the password you are guessing entropy for.
+     * @return the same entropy as {@link Result#getEntropy()} for the estimate of this password.
+     */
+    private double calculateEntropy(final Configuration configuration, final String password)
     {
+        if (configuration.isSplitLongPasswords() && password.length() > configuration.getMaxLength())
+        {
+            return guessEntropyInWindows(configuration, password, null, DetailLevel.SCORE).getEntropy();
+        }
+
+        final String truncated_password = getTruncatedPassword(configuration, password);
+        final EstimationTracker tracker = new EstimationTracker();
+        final List<Match> all_matches = getAllMatches(configuration, truncated_password, tracker);
+        final BruteForceMatches brute_force_matches = new BruteForceMatches(configuration, truncated_password);
+        final List<Match> matches = getBestCombination(configuration, truncated_password, all_matches, brute_force_matches, tracker);
+
+        recordEstimate(tracker);
+        return calcEntropy(matches, true);
+    }
+
+    /**
+     * Checks if a password meets the minimum entropy in the configuration, without searching for the best
+     * combination of matches when it isn't needed.
+     * <br><br>
+     * Whatever combination of matches is picked, each character of the password is covered by one of the matches
+     * found for it, or by brute force.  Adding up the lowest and highest average entropy which could cover each
+     * character gives bounds on the entropy of any combination, so once all matches are found, the search for the
+     * best combination is only needed if the minimum entropy falls between the two.
+     *
+     * @param configuration the configuration file used to estimate entropy.
+     * @param password      the password you are checking.
+     * @return the same as {@link Result#isMinimumEntropyMet()} for the estimate of this password.
+     */
+    private boolean checkMinimumEntropy(final Configuration configuration, final String password)
+    {
+        final double minimum_entropy = configuration.getMinimumEntropy();
+        if (minimum_entropy <= 0)
+        {
+            // No password has negative entropy, so there is nothing to search for
+            final EstimationTracker tracker = new EstimationTracker();
+            tracker.strategy = EstimationStrategy.BOUNDED;
+            recordEstimate(tracker);
+            return true;
+        }
+
+        if (configuration.isSplitLongPasswords() && password.length() > configuration.getMaxLength())
+        {
+            return guessEntropyInWindows(configuration, password, null, DetailLevel.SCORE).isMinimumEntropyMet();
+        }
+
         final String truncated_password = getTruncatedPassword(configuration, password);
-        return new Result(configuration, truncated_password, password, getBestCombination(configuration, truncated_password));
+        final EstimationTracker tracker = new EstimationTracker();
+        final List<Match> all_matches = getAllMatches(configuration, truncated_password, tracker);
+        final BruteForceMatches brute_force_matches = new BruteForceMatches(configuration, truncated_password);
+
+        final int length = truncated_password.length();
+        final double[] lowest_average = new double[length];
+        final double[] highest_average = new double[length];
+        for (int i = 0; i < length; i++)
+        {
+            lowest_average[i] = brute_force_matches.getEntropy(i);
+            highest_average[i] = lowest_average[i];
+        }
+        for (Match match : all_matches)
+        {
+            final double average = match.getAverageEntropy();
+            for (int i = match.getStartIndex(); i <= match.getEndIndex(); i++)
+            {
+                lowest_average[i] = Math.min(lowest_average[i], average);
+                highest_average[i] = Math.max(highest_average[i], average);
+            }
+        }
+        double lower_bound = 0;
+        double upper_bound = 0;
+        for (int i = 0; i < length; i++)
+        {
+            lower_bound += lowest_average[i];
+            upper_bound += highest_average[i];
+        }
+
+        // Leave room for rounding, since the entropy of the result is added up in a different order.
+        final boolean lower_bound_met = lower_bound - 1e-9 >= minimum_entropy;
+        if (lower_bound_met || upper_bound + 1e-9 < minimum_entropy)
+        {
+            // The bounds settle it exactly, so no combination needs to be picked
+            tracker.strategy = EstimationStrategy.BOUNDED;
+            recordEstimate(tracker);
+            return lower_bound_met;
+        }
+
+        final List<Match> matches = getBestCombination(configuration, truncated_password, all_matches, brute_force_matches, tracker);
+        recordEstimate(tracker);
+        return calcEntropy(matches, true) >= minimum_entropy;
     }
 
     /**
      * Returns the best combination of matches based on multiple methods.  We run the password through the
      * {@code findGoodEnoughCombination} method test to see if is considered "random".  If it isn't, we
      * run it through the {@code findBestCombination} method, which is much more expensive for large
-     * passwords.
+     * passwords, or whichever other combination method the configuration asks for.
      *
-     * @param configuration the configuration
-     * @param password      the password
+     * @param configuration       the configuration
+     * @param password            the password
+     * @param all_matches         all matches which have been found for this password
+     * @param brute_force_matches lazily created brute force match to fit each index
+     * @param tracker             keeps track of how the estimate went, which this will update
      * @return the best list of matches, sorted by start index.
      */
-    private List<Match> getBestCombination(final Configuration configuration, final String password)
+    private List<Match> getBestCombination(final Configuration configuration, final String password, final List<Match> all_matches, final BruteForceMatches brute_force_matches, final EstimationTracker tracker)
     {
-        final List<Match> all_matches = getAllMatches(configuration, password);
-        final Map<Integer, Match> brute_force_matches = new HashMap<>();
-        for (int i = 0; i < password.length(); i++)
-        {
-            brute_force_matches.put(i, createBruteForceMatch(configuration, password, i));
-        }
-
         final List<Match> good_enough_matches = findGoodEnoughCombination(password, all_matches, brute_force_matches);
 
         if (all_matches == null || all_matches.size() == 0 || isRandom(password, good_enough_matches))
@@ -280,16 +666,32 @@ public class Nbvcxz
             List<Match> matches = new ArrayList<>();
             backfillBruteForce(password, brute_force_matches, matches);
             Collections.sort(matches, comparator);
+            tracker.strategy = EstimationStrategy.RANDOM;
             return matches;
         }
-        Collections.sort(all_matches, comparator);
+        // The work budget replaces the timeout, so the search is only disabled when neither is set
+        final boolean search_enabled = configuration.getCombinationAlgorithmTimeout() > 0 || configuration.getCombinationAlgorithmWorkBudget() > 0;
+        if (configuration.getCombinationAlgorithm() == CombinationAlgorithm.DYNAMIC && search_enabled)
+        {
+            tracker.strategy = EstimationStrategy.EXHAUSTIVE;
+            return findDynamicCombination(password, all_matches, brute_force_matches);
+        }
 
         try
         {
-            return findBestCombination(password, all_matches, brute_force_matches);
+            final List<Match> best_matches = configuration.getCombinationAlgorithm() == CombinationAlgorithm.PARALLEL
+                    ? findParallelCombination(password, all_matches, brute_force_matches)
+                    : findBestCombination(password, all_matches, brute_force_matches);
+            tracker.strategy = EstimationStrategy.EXHAUSTIVE;
+            return best_matches;
         }
         catch (TimeoutException e)
         {
+            if (search_enabled)
+            {
+                tracker.cut_short_phases.add(EstimationPhase.COMBINATION);
+            }
+            tracker.strategy = EstimationStrategy.FALLBACK;
             return good_enough_matches;
         }
     }
@@ -301,28 +703,26 @@ public class Nbvcxz
      *
      * @param password            the password
      * @param all_matches         all matches which have been found for this password
-     * @param brute_force_matches map of index and brute force match to fit that index
+     * @param brute_force_matches lazily created brute force match to fit each index
      * @return a list of matches which is good enough for most uses
      */
-    private List<Match> findGoodEnoughCombination(final String password, final List<Match> all_matches, final Map<Integer, Match> brute_force_matches)
+    private List<Match> findGoodEnoughCombination(final String password, final List<Match> all_matches, final BruteForceMatches brute_force_matches)
     {
         int length = password.length();
         Match[] match_at_index = new Match[length];
+        double[] average_at_index = new double[length];
         List<Match> match_list = new ArrayList<>();
 
-        // First pass through the password forward.
-        // Set the match to be the lowest average entropy for the length the part of the password takes.
-        for (int k = 0; k < length; k++)
+        // First pass through the matches, once each.
+        // Set the match at each end index to be the lowest average entropy for the length the part of the password takes.
+        for (Match match : all_matches)
         {
-            for (Match match : all_matches)
+            int k = match.getEndIndex();
+            double average = match.calculateEntropy() / match.getLength();
+            if (match_at_index[k] == null || average_at_index[k] > average)
             {
-                if (match.getEndIndex() == k)
-                {
-                    if (match_at_index[k] == null || match_at_index[k].calculateEntropy() / match_at_index[k].getLength() > match.calculateEntropy() / match.getLength())
-                    {
-                        match_at_index[k] = match;
-                    }
-                }
+                match_at_index[k] = match;
+                average_at_index[k] = average;
             }
         }
 
@@ -353,161 +753,295 @@ public class Nbvcxz
      *
      * @param password            the password
      * @param all_matches         all matches which have been found for this password
-     * @param brute_force_matches map of index and brute force match to fit that index
+     * @param brute_force_matches lazily created brute force match to fit each index
      * @return the best possible combination of matches for this password
      */
-    private List<Match> findBestCombination(final String password, final List<Match> all_matches, final Map<Integer, Match> brute_force_matches) throws TimeoutException
+    private List<Match> findBestCombination(final String password, final List<Match> all_matches, final BruteForceMatches brute_force_matches) throws TimeoutException
     {
-        if (configuration.getCombinationAlgorithmTimeout() <= 0)
+        if (configuration.getCombinationAlgorithmTimeout() <= 0 && configuration.getCombinationAlgorithmWorkBudget() <= 0)
         {
             throw new TimeoutException("findBestCombination algorithm disabled.");
         }
 
-        //  The start time of this algorithm, if we take too long, we must throw an exception
-        long start_time = System.currentTimeMillis();
-
-        final Map<Match, List<Match>> non_intersecting_matches = new HashMap<>();
-
-        // Build lists of non-intersecting matches for each match which start at a higher index than the current match.
-        for (int i = 0; i < all_matches.size(); i++)
-        {
-            Match match = all_matches.get(i);
-            List<Match> forward_non_intersecting_matches = new ArrayList<>();
-
-            for (int n = i + 1; n < all_matches.size(); n++)
-            {
-                Match next_match = all_matches.get(n);
-                if (next_match.getStartIndex() > match.getEndIndex() && !(next_match.getStartIndex() < match.getEndIndex() && match.getStartIndex() < next_match.getEndIndex()))
-                {
-                    boolean to_add = true;
-                    for (Match non_intersecting_match : forward_non_intersecting_matches)
-                    {
-                        if (next_match.getStartIndex() > non_intersecting_match.getEndIndex())
-                        {
-                            to_add = false;
-                            break;
-                        }
-                    }
-                    if (to_add)
-                    {
-                        forward_non_intersecting_matches.add(next_match);
-                    }
-                }
-            }
-            Collections.sort(forward_non_intersecting_matches, comparator);
-            non_intersecting_matches.put(match, forward_non_intersecting_matches);
-        }
+        //  If we take too long, explore too many combinations, or the deadline of the estimate passes, we must throw an exception
+        final SearchLimit search_limit = new SearchLimit(configuration, Deadline.current());
 
-        // Find all matches we should consider as a seed for the recursive function.
+        // Build the graph of non-intersecting matches, which tells us the seeds for the recursive function.
         // There is no need to start the function with a match that is half way through the password.
-        List<Match> seed_matches = new ArrayList<>();
-        for (Match match : all_matches)
+        final MatchGraph match_graph = new MatchGraph(password.length(), all_matches);
+
+        // The lowest average entropy of any match starting at or after each id, used to bound the rest of a combination.
+        double[] min_average_from = null;
+        if (configuration.isCombinationAlgorithmPruning())
         {
-            boolean seed = true;
-            for (List<Match> match_list : non_intersecting_matches.values())
-            {
-                for (Match m : match_list)
-                {
-                    if (m.equals(match))
-                    {
-                        seed = false;
-                    }
-                }
-            }
-            if (seed)
+            min_average_from = new double[match_graph.size() + 1];
+            min_average_from[match_graph.size()] = Double.MAX_VALUE;
+            for (int id = match_graph.size() - 1; id >= 0; id--)
             {
-                seed_matches.add(match);
+                min_average_from[id] = Math.min(min_average_from[id + 1], match_graph.getMatch(id).getAverageEntropy());
             }
         }
-        Collections.sort(seed_matches, comparator);
 
         // Run the recursive function for each seed, and the lowest entropy matches will be set with the best combination.
         BestMatches best_matches = new BestMatches();
-        for (Match match : seed_matches)
+        for (int seed = 0; seed < match_graph.getSeedCount(); seed++)
         {
-            generateMatches(start_time, password, match, non_intersecting_matches, brute_force_matches, new ArrayList<Match>(), 0, best_matches);
+            generateMatches(search_limit, match_graph, min_average_from, seed, new ArrayList<Match>(), 0, 0, best_matches);
         }
+        // Brute force matches don't count towards the comparisons, so they only need to be filled in for the winner.
+        backfillBruteForce(password, brute_force_matches, best_matches.getBestMatches());
         best_matches.sortMatches(comparator);
 
         return best_matches.getBestMatches();
     }
 
     /**
-     * Recursive function to generate match combinations to get an optimal match.
+     * Finds the most complete, lowest entropy combination of matches by building out the same combinations as
+     * {@code findBestCombination}, with the seeds and their subtrees split across the shared pool.
+     * Every worker prunes against the best combination any of them has found so far.
      *
-     * @param start_time               the time the function started to allow timeout
-     * @param password                 the password
-     * @param match                    a match to start with (or the next match in line)
-     * @param non_intersecting_matches map of all non-intersecting matches
-     * @param brute_force_matches      map of index and brute force match to fit that index
-     * @param matches                  the list of matches being built
-     * @param matches_length           the length of the password the matches  take up
-     * @param best_matches             wrapper for the best matches list and length
+     * @param password            the password
+     * @param all_matches         all matches which have been found for this password
+     * @param brute_force_matches lazily created brute force match to fit each index
+     * @return the most complete, lowest entropy combination of matches for this password
      */
-    private void generateMatches(final long start_time, final String password, final Match match, final Map<Match, List<Match>> non_intersecting_matches, final Map<Integer, Match> brute_force_matches, final List<Match> matches, int matches_length, BestMatches best_matches) throws TimeoutException
+    private List<Match> findParallelCombination(final String password, final List<Match> all_matches, final BruteForceMatches brute_force_matches) throws TimeoutException
     {
-        if (System.currentTimeMillis() - start_time > configuration.getCombinationAlgorithmTimeout())
+        if (configuration.getCombinationAlgorithmTimeout() <= 0 && configuration.getCombinationAlgorithmWorkBudget() <= 0)
         {
-            throw new TimeoutException("Took too long to get best matches");
+            throw new TimeoutException("findParallelCombination algorithm disabled.");
         }
 
-        int index = matches.size();
-        matches.add(match);
-        matches_length += match.getLength();
+        final MatchGraph match_graph = new MatchGraph(password.length(), all_matches);
+        final ParallelSearch search = new ParallelSearch(configuration, Deadline.current(), match_graph);
+        SharedPool.invoke(new ParallelSearchTask(search, -1, new int[password.length()], 0, 0, 0));
+        if (search.stop_reason != null)
+        {
+            throw new TimeoutException(search.stop_reason);
+        }
+
+        List<Match> best_matches = new ArrayList<>();
+        for (int id : search.best.get().ids)
+        {
+            best_matches.add(match_graph.getMatch(id));
+        }
+        backfillBruteForce(password, brute_force_matches, best_matches);
+        Collections.sort(best_matches, comparator);
+        return best_matches;
+    }
+
+    /**
+     * A combination is better if it covers more of the password, or covers the same amount with less entropy.
+     *
+     * @param length       the length of the password the combination takes up
+     * @param entropy      the entropy of the combination
+     * @param best_length  the length of the password the best combination so far takes up
+     * @param best_entropy the entropy of the best combination so far
+     * @return true if the combination is better than the best combination so far
+     */
+    private static boolean isBetterCombination(final int length, final double entropy, final int best_length, final double best_entropy)
+    {
+        return length > best_length || (length == best_length && entropy < best_entropy);
+    }
+
+    /**
+     * Finds the lowest entropy combination of matches without enumerating every combination.
+     * <br><br>
+     * For every prefix of the password we keep the combination of matches with the lowest entropy once the characters
+     * it leaves out are filled in with brute force.  The best combination for a prefix either leaves the last character
+     * for brute force, or ends with a match ending on the last character, appended to the best combination for the
+     * prefix before that match starts.  Ties are broken by covering more of the password.
+     * <br><br>
+     * Every combination the recursive algorithm can return is one of the combinations compared here, and is scored the
+     * same way once brute force is filled in, so this never estimates more entropy than the recursive algorithm.
+     *
+     * @param password            the password
+     * @param all_matches         all matches which have been found for this password
+     * @param brute_force_matches lazily created brute force match to fit each index
+     * @return the lowest entropy combination of matches for this password
+     */
+    private List<Match> findDynamicCombination(final String password, final List<Match> all_matches, final BruteForceMatches brute_force_matches)
+    {
+        final int length = password.length();
+        final List<List<Match>> matches_by_end = getMatchesByEndIndex(length, all_matches);
+
+        // Best combination for each prefix length, stored as entropy including brute force, covered length, and the last match used
+        final double[] entropy = new double[length + 1];
+        final int[] covered_length = new int[length + 1];
+        final Match[] last_match = new Match[length + 1];
 
-        boolean found_next = false;
-        for (Match next_match : non_intersecting_matches.get(match))
+        for (int i = 1; i <= length; i++)
         {
-            if (matches.size() > 1)
+            // Leave the last character of this prefix for brute force
+            entropy[i] = entropy[i - 1] + brute_force_matches.getEntropy(i - 1);
+            covered_length[i] = covered_length[i - 1];
+
+            for (Match match : matches_by_end.get(i - 1))
             {
-                Match last_match = matches.get(matches.size() - 2);
-                if (next_match.getStartIndex() < last_match.getEndIndex() && last_match.getStartIndex() < next_match.getEndIndex())
+                int start = match.getStartIndex();
+                double candidate_entropy = entropy[start] + match.calculateEntropy();
+                int candidate_length = covered_length[start] + match.getLength();
+                if (candidate_entropy < entropy[i] || (candidate_entropy == entropy[i] && candidate_length > covered_length[i]))
                 {
-                    continue;
+                    entropy[i] = candidate_entropy;
+                    covered_length[i] = candidate_length;
+                    last_match[i] = match;
                 }
             }
-            generateMatches(start_time, password, next_match, non_intersecting_matches, brute_force_matches, matches, matches_length, best_matches);
-            found_next = true;
         }
 
-        if (!found_next)
+        // Walk back from the end of the password to collect the matches used
+        List<Match> best_matches = new ArrayList<>();
+        int i = length;
+        while (i > 0)
         {
-            List<Match> best_matches_list = best_matches.getBestMatches();
-            // We always look for the most complete match, even if it's not the lowest entropy.
-            if (best_matches_list.isEmpty() ||
-                    (matches_length >= best_matches.getMatchLength()
-                            && (calcEntropy(matches, false) / matches_length) < (calcEntropy(best_matches_list, false) / best_matches.getMatchLength())))
+            Match match = last_match[i];
+            if (match == null)
             {
-                best_matches_list.clear();
-                best_matches_list.addAll(matches);
-                best_matches.setMatchLength(matches_length);
-                backfillBruteForce(password, brute_force_matches, best_matches_list);
-                best_matches.setBestMatches(best_matches_list);
+                i--;
+                continue;
             }
+            best_matches.add(match);
+            i = match.getStartIndex();
         }
-        // Leave the array in the same state we found it in at the start.
-        matches.remove(index);
+        backfillBruteForce(password, brute_force_matches, best_matches);
+        Collections.sort(best_matches, comparator);
+        return best_matches;
     }
 
     /**
-     * Method to determine if the password should be considered random, and to just use brute force matches.
-     * <p>
-     * We determine a password to be random if the matches cover less than 50% of the password, or if they cover less than 80%
-     * but the max length for a match is no more than 25% of the total length of the password.
+     * Groups the matches passed in by the index they end at.
      *
-     * @param password the password
-     * @param matches  the final list of matches
-     * @return true if determined to be random
+     * @param length  the length of the password
+     * @param matches the matches to group
+     * @return a list with an entry for every index of the password, containing the matches which end at that index
      */
-    private boolean isRandom(final String password, final List<Match> matches)
+    private static List<List<Match>> getMatchesByEndIndex(final int length, final List<Match> matches)
     {
-        int matched_length = 0;
-        int max_matched_length = 0;
+        final List<List<Match>> matches_by_end = new ArrayList<>(length);
+        for (int i = 0; i < length; i++)
+        {
+            matches_by_end.add(new ArrayList<Match>());
+        }
         for (Match match : matches)
         {
-            if (!(match instanceof BruteForceMatch))
-            {
-                matched_length += match.getLength();
+            matches_by_end.get(match.getEndIndex()).add(match);
+        }
+        return matches_by_end;
+    }
+
+    /**
+     * Recursive function to generate match combinations to get an optimal match.
+     *
+     * @param search_limit     the limit on time and work for the function
+     * @param match_graph      graph of all non-intersecting matches
+     * @param min_average_from lowest average entropy of the matches from each id on, or null to disable pruning
+     * @param id               the id of a match to start with (or the next match in line)
+     * @param matches          the list of matches being built
+     * @param matches_length   the length of the password the matches  take up
+     * @param matches_entropy  the entropy of the matches
+     * @param best_matches     wrapper for the best matches list and length
+     */
+    private void generateMatches(final SearchLimit search_limit, final MatchGraph match_graph, final double[] min_average_from, final int id, final List<Match> matches, int matches_length, double matches_entropy, BestMatches best_matches) throws TimeoutException
+    {
+        search_limit.check();
+
+        final Match match = match_graph.getMatch(id);
+        matches_length += match.getLength();
+        matches_entropy += match.calculateEntropy();
+
+        if (min_average_from != null && !canBeatBestMatches(match_graph, min_average_from, id, matches_length, matches_entropy, best_matches))
+        {
+            return;
+        }
+
+        int index = matches.size();
+        matches.add(match);
+
+        for (int next = match_graph.getSuccessorStart(id); next < match_graph.getSuccessorEnd(id); next++)
+        {
+            generateMatches(search_limit, match_graph, min_average_from, next, matches, matches_length, matches_entropy, best_matches);
+        }
+
+        if (match_graph.isLeaf(id))
+        {
+            List<Match> best_matches_list = best_matches.getBestMatches();
+            // We always look for the most complete match, even if it's not the lowest entropy.
+            if (best_matches_list.isEmpty() ||
+                    (matches_length >= best_matches.getMatchLength()
+                            && (calcEntropy(matches, false) / matches_length) < (calcEntropy(best_matches_list, false) / best_matches.getMatchLength())))
+            {
+                best_matches_list.clear();
+                best_matches_list.addAll(matches);
+                best_matches.setMatchLength(matches_length);
+            }
+        }
+        // Leave the array in the same state we found it in at the start.
+        matches.remove(index);
+    }
+
+    /**
+     * Checks if any combination continuing from a match could still replace the best matches found so far.
+     * <br><br>
+     * A combination only replaces the best matches if it is at least as long, and has a lower average entropy.
+     * The rest of the combination can cover at most the rest of the password, and has at least the lowest average
+     * entropy of any match which could follow, so the average of the whole combination is bounded by combining
+     * that with the matches so far.  That bound moves steadily with the length covered, so checking the shortest and
+     * longest lengths which could replace the best matches is enough.
+     *
+     * @param match_graph      graph of all non-intersecting matches
+     * @param min_average_from lowest average entropy of the matches from each id on
+     * @param id               the id of the last match in the combination
+     * @param matches_length   the length of the password the combination takes up
+     * @param matches_entropy  the entropy of the combination
+     * @param best_matches     wrapper for the best matches list and length
+     * @return false if no combination continuing from this match can replace the best matches
+     */
+    private boolean canBeatBestMatches(final MatchGraph match_graph, final double[] min_average_from, final int id, final int matches_length, final double matches_entropy, final BestMatches best_matches)
+    {
+        final List<Match> best_matches_list = best_matches.getBestMatches();
+        if (best_matches_list.isEmpty())
+        {
+            return true;
+        }
+
+        final int remaining_length = match_graph.isLeaf(id) ? 0 : match_graph.getPasswordLength() - match_graph.getMatch(id).getEndIndex() - 1;
+        final int max_length = matches_length + remaining_length;
+        if (max_length < best_matches.getMatchLength())
+        {
+            return false;
+        }
+
+        final double best_average = calcEntropy(best_matches_list, false) / best_matches.getMatchLength();
+        final double min_average = min_average_from[match_graph.getSuccessorStart(id)];
+        final int min_length = Math.max(matches_length, best_matches.getMatchLength());
+        final double lower_bound = Math.min(
+                (matches_entropy + min_average * (min_length - matches_length)) / min_length,
+                (matches_entropy + min_average * remaining_length) / max_length);
+
+        // Leave room for rounding, pruning too little only costs time.
+        return lower_bound < best_average + 1e-9;
+    }
+
+    /**
+     * Method to determine if the password should be considered random, and to just use brute force matches.
+     * <p>
+     * We determine a password to be random if the matches cover less than 50% of the password, or if they cover less than 80%
+     * but the max length for a match is no more than 25% of the total length of the password.
+     *
+     * @param password the password
+     * @param matches  the final list of matches
+     * @return true if determined to be random
+     */
+    private boolean isRandom(final String password, final List<Match> matches)
+    {
+        int matched_length = 0;
+        int max_matched_length = 0;
+        for (Match match : matches)
+        {
+            if (!(match instanceof BruteForceMatch))
+            {
+                matched_length += match.getLength();
                 if (match.getLength() > max_matched_length)
                 {
                     max_matched_length = match.getLength();
@@ -553,74 +1087,50 @@ public class Nbvcxz
      * Returns them unsorted.
      *
      * @param password            the password
-     * @param brute_force_matches map of index and brute force match to fit that index
+     * @param brute_force_matches lazily created brute force match to fit each index
      * @param matches             the list of matches to fill in
      */
-    private void backfillBruteForce(final String password, final Map<Integer, Match> brute_force_matches, final List<Match> matches)
+    private void backfillBruteForce(final String password, final BruteForceMatches brute_force_matches, final List<Match> matches)
     {
-        Set<Match> bf_matches = new HashSet<>();
-        int index = 0;
-        while (index < password.length())
+        final BitSet covered = new BitSet(password.length());
+        for (Match match : matches)
         {
-            boolean has_match = false;
-            for (Match match : matches)
-            {
-                if (index >= match.getStartIndex() && index <= match.getEndIndex())
-                {
-                    has_match = true;
-                }
-            }
-            if (!has_match)
-            {
-                bf_matches.add(brute_force_matches.get(index));
-            }
-            index++;
+            covered.set(match.getStartIndex(), match.getEndIndex() + 1);
+        }
+        for (int index = covered.nextClearBit(0); index < password.length(); index = covered.nextClearBit(index + 1))
+        {
+            matches.add(brute_force_matches.get(index));
         }
-        matches.addAll(bf_matches);
     }
 
     /**
      * Gets all matches for a given password.
      *
-     * @param configuration the configuration file used to estimate entropy.
-     * @param password      the password to get matches for.
-     * @return a {@code List} of {@code Match} objects for the supplied password.
+     * @param configuration    the configuration file used to estimate entropy.
+     * @param password         the password to get matches for.
+     * @param tracker          keeps track of how the estimate went, which this will update
+     * @return a {@code List} of {@code Match} objects for the supplied password, with only the lowest entropy match
+     * for each start / end index.
      */
-    private List<Match> getAllMatches(final Configuration configuration, final String password)
+    private List<Match> getAllMatches(final Configuration configuration, final String password, final EstimationTracker tracker)
     {
-        List<Match> matches = new ArrayList<>();
+        final MatchCollector collector = new MatchCollector(password.length());
+        final Deadline deadline = Deadline.current();
 
         for (PasswordMatcher passwordMatcher : configuration.getPasswordMatchers())
         {
-            matches.addAll(passwordMatcher.match(configuration, password));
-        }
-        keepLowestMatches(matches);
-        return matches;
-    }
-
-    /**
-     * Keeps the lowest entropy matches for the specific start / end index
-     *
-     * @param matches List of matches to remove duplicate higher entropy matches from.
-     */
-    private void keepLowestMatches(final List<Match> matches)
-    {
-        Set<Match> to_remove = new HashSet<>();
-        for (Match match : matches)
-        {
-            for (Match to_compare : matches)
+            // Matchers return what they have found so far once the deadline passes, so don't bother with the rest.
+            if (deadline.isExpired())
             {
-                if (match.getStartIndex() == to_compare.getStartIndex() && match.getEndIndex() == to_compare.getEndIndex())
-                {
-                    if (match.getAverageEntropy() > to_compare.getAverageEntropy())
-                    {
-                        to_remove.add(match);
-                        break;
-                    }
-                }
+                break;
             }
+            collector.addAll(passwordMatcher.match(configuration, password));
         }
-        matches.removeAll(to_remove);
+        if (deadline.isExpired())
+        {
+            tracker.cut_short_phases.add(EstimationPhase.MATCHING);
+        }
+        return collector.getMatches();
     }
 
     /**
@@ -651,7 +1161,768 @@ public class Nbvcxz
      */
     public Result estimate(final String password)
     {
-        return guessEntropy(this.configuration, password);
+        return guessEntropy(this.configuration, password, null, this.configuration.getDetailLevel());
+    }
+
+    /**
+     * Guess the entropy of a password with the configuration provided.
+     * <br><br>
+     * The characters are copied once before matching starts, so the caller can zero the buffer as soon as this
+     * returns.  The {@link Result} still holds the password, as {@link Result#getPassword()} returns it.
+     * <br><br>
+     * This has its own name rather than being another {@code estimate} overload, so {@code estimate(null)} still
+     * compiles.
+     *
+     * @param password The password you would like to attempt to estimate on.
+     * @return Result object that contains info about the password.
+     */
+    public Result estimateChars(final char[] password)
+    {
+        return estimate(new String(password));
+    }
+
+    /**
+     * Guess the entropy of a password with the configuration provided.
+     * <br><br>
+     * The characters are copied once before matching starts, so the caller can clear the sequence as soon as this
+     * returns.  The {@link Result} still holds the password, as {@link Result#getPassword()} returns it.
+     *
+     * @param password The password you would like to attempt to estimate on.
+     * @return Result object that contains info about the password.
+     */
+    public Result estimate(final CharSequence password)
+    {
+        return estimate(password.toString());
+    }
+
+    /**
+     * Guess the entropy of a password with the configuration provided, for callers which only need the number.
+     * <br><br>
+     * This gives the same entropy as {@code estimate(password).getEntropy()}, but never builds a {@link Result},
+     * so there is no validation of the matches, feedback, or timing to pay for.  Pass the entropy to
+     * {@link Result#getBasicScore(double)} if a score is needed too.
+     *
+     * @param password The password you would like to attempt to estimate on.
+     * @return the estimated entropy of the password.
+     */
+    public double estimateEntropy(final CharSequence password)
+    {
+        return calculateEntropy(this.configuration, password.toString());
+    }
+
+    /**
+     * Checks if a password meets the minimum entropy in the configuration provided.
+     * <br><br>
+     * This gives the same answer as {@code estimate(password).isMinimumEntropyMet()}, but skips the search for the
+     * best combination of matches when the matches found already prove which side of the minimum the password is on,
+     * and never builds a {@link Result}.
+     *
+     * @param password The password you would like to check.
+     * @return {@code true} if minimum entropy is met; {@code false} if not.
+     */
+    public boolean meetsMinimumEntropy(final String password)
+    {
+        return checkMinimumEntropy(this.configuration, password);
+    }
+
+    /**
+     * Guess the entropy of a password with the configuration provided, keeping only as much detail on the result as
+     * asked for instead of the detail level in the configuration.
+     *
+     * @param password     The password you would like to attempt to estimate on.
+     * @param detail_level How much detail to keep on the result.
+     * @return Result object that contains info about the password.
+     */
+    public Result estimateWithDetail(final String password, final DetailLevel detail_level)
+    {
+        return guessEntropy(this.configuration, password, null, detail_level);
+    }
+
+    /**
+     * Guess the entropy of a password with the configuration provided, stopping once the deadline passes.
+     * <br><br>
+     * The matchers and the combination search check the deadline as they go, so the estimate returns shortly after
+     * it passes, or is cancelled, using the matches found up until then.  The {@link Result} says which phases of the
+     * estimate were cut short.
+     *
+     * @param password The password you would like to attempt to estimate on.
+     * @param deadline The deadline for the estimate.
+     * @return Result object that contains info about the password.
+     */
+    public Result estimate(final String password, final Deadline deadline)
+    {
+        return guessEntropy(this.configuration, password, deadline, this.configuration.getDetailLevel());
+    }
+
+    /**
+     * Guess the entropy of a password with the configuration provided, on a shared executor so the calling thread is
+     * not blocked.
+     * <br><br>
+     * The shared executor has a thread for each processor, and a queue of at most 1024
+     * estimates waiting for one.  Once the queue is full, a {@link java.util.concurrent.RejectedExecutionException}
+     * is thrown instead of letting the backlog grow.
+     *
+     * @param password The password you would like to attempt to estimate on.
+     * @return a Future for the Result of the estimate, which stops the estimate if it is cancelled.
+     */
+    public Future<Result> estimateAsync(final String password)
+    {
+        return estimateAsync(password, AsyncExecutor.EXECUTOR);
+    }
+
+    /**
+     * Guess the entropy of a password with the configuration provided, on the executor passed in so the calling thread
+     * is not blocked.  Any executor works, including one which starts a virtual thread for each task.
+     * <br><br>
+     * Cancelling the returned Future cancels the {@link Deadline} of the estimate, so the matchers and the combination
+     * search stop as soon as they next check it, instead of running to the end for a result nobody will read.
+     *
+     * @param password The password you would like to attempt to estimate on.
+     * @param executor The executor to run the estimate on.
+     * @return a Future for the Result of the estimate, which stops the estimate if it is cancelled.
+     */
+    public Future<Result> estimateAsync(final String password, final Executor executor)
+    {
+        final Configuration configuration = this.configuration;
+        final Deadline deadline = Deadline.none();
+        final EstimateTask task = new EstimateTask(new Callable<Result>()
+        {
+            @Override
+            public Result call()
+            {
+                return guessEntropy(configuration, password, deadline, configuration.getDetailLevel());
+            }
+        }, deadline);
+        executor.execute(task);
+        return task;
+    }
+
+    /**
+     * Guess the entropy of every password in a batch with the configuration provided, spread across a shared pool.
+     * <br><br>
+     * Each distinct password is only estimated once, no matter how many times it is in the batch.
+     *
+     * @param passwords The passwords you would like to attempt to estimate on.
+     * @return Result objects that contain info about each password, in the same order as the passwords.
+     */
+    public List<Result> estimateAll(final Collection<String> passwords)
+    {
+        return estimateAll(passwords, SharedPool.POOL);
+    }
+
+    /**
+     * Guess the entropy of every password in a batch with the configuration provided, spread across the executor passed in.
+     * <br><br>
+     * Each distinct password is only estimated once, no matter how many times it is in the batch.
+     *
+     * @param passwords The passwords you would like to attempt to estimate on.
+     * @param executor  The executor to run the estimates on.
+     * @return Result objects that contain info about each password, in the same order as the passwords.
+     */
+    public List<Result> estimateAll(final Collection<String> passwords, final Executor executor)
+    {
+        final Map<String, Result> results_by_password = new HashMap<>();
+        estimateAll(new LinkedHashSet<>(passwords).iterator(), executor, getDefaultMaxPending(), new ResultCallback()
+        {
+            @Override
+            public void onResult(final String password, final Result result)
+            {
+                results_by_password.put(password, result);
+            }
+        });
+
+        final List<Result> results = new ArrayList<>(passwords.size());
+        for (String password : passwords)
+        {
+            results.add(results_by_password.get(password));
+        }
+        return results;
+    }
+
+    /**
+     * Guess the entropy of a stream of passwords with the configuration provided, spread across the executor passed in.
+     * <br><br>
+     * At most {@code max_pending} passwords are read ahead of the one being handed to the callback, so a stream
+     * too large to fit in memory can be estimated as fast as the executor allows.  Copies of a password which are
+     * pending at the same time are only estimated once.  Results are handed to the callback on the calling thread,
+     * in the same order as the passwords.
+     *
+     * @param passwords   The passwords you would like to attempt to estimate on.
+     * @param executor    The executor to run the estimates on.
+     * @param max_pending The most passwords which can be read ahead of the callback.
+     * @param callback    Receives the Result of each password.
+     */
+    public void estimateAll(final Iterator<String> passwords, final Executor executor, final int max_pending, final ResultCallback callback)
+    {
+        if (max_pending < 1)
+        {
+            throw new IllegalArgumentException("The max pending passwords must be at least 1.");
+        }
+        final Configuration configuration = this.configuration;
+        final Deque<PendingEstimate> pending = new ArrayDeque<>();
+        final Map<String, PendingEstimate> pending_by_password = new HashMap<>();
+        try
+        {
+            while (passwords.hasNext())
+            {
+                final String password = passwords.next();
+                PendingEstimate estimate = pending_by_password.get(password);
+                if (estimate == null)
+                {
+                    estimate = new PendingEstimate(password, new FutureTask<>(new Callable<Result>()
+                    {
+                        @Override
+                        public Result call()
+                        {
+                            return guessEntropy(configuration, password, null, configuration.getDetailLevel());
+                        }
+                    }));
+                    pending_by_password.put(password, estimate);
+                    executor.execute(estimate.task);
+                }
+                estimate.copies++;
+                pending.add(estimate);
+
+                if (pending.size() >= max_pending)
+                {
+                    deliverResult(pending, pending_by_password, callback);
+                }
+            }
+            while (!pending.isEmpty())
+            {
+                deliverResult(pending, pending_by_password, callback);
+            }
+        }
+        finally
+        {
+            // Only left over if the batch failed part way through
+            for (PendingEstimate estimate : pending)
+            {
+                estimate.task.cancel(false);
+            }
+        }
+    }
+
+    /**
+     * Waits for the oldest pending estimate of a batch, and hands its result to the callback.
+     *
+     * @param pending             the pending estimate of each password, oldest first.
+     * @param pending_by_password the pending estimate for each distinct password.
+     * @param callback            receives the Result of the password.
+     */
+    private static void deliverResult(final Deque<PendingEstimate> pending, final Map<String, PendingEstimate> pending_by_password, final ResultCallback callback)
+    {
+        final PendingEstimate estimate = pending.peek();
+        final Result result;
+        try
+        {
+            result = estimate.task.get();
+        }
+        catch (InterruptedException e)
+        {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while estimating a batch of passwords.", e);
+        }
+        catch (ExecutionException e)
+        {
+            throw new IllegalStateException("There was an unexpected error estimating a password in the batch.", e.getCause());
+        }
+        pending.poll();
+        if (--estimate.copies == 0)
+        {
+            pending_by_password.remove(estimate.password);
+        }
+        callback.onResult(estimate.password, result);
+    }
+
+    /**
+     * @return the number of passwords a batch reads ahead by default, enough to keep every processor busy.
+     */
+    private static int getDefaultMaxPending()
+    {
+        return Runtime.getRuntime().availableProcessors() * 4;
+    }
+
+    /**
+     * Holds the pool used to run parts of an estimate in parallel, which is only created the first time it is needed.
+     * <br><br>
+     * An estimate can already be running on a pool worker, such as one from a batch on the shared pool.  Blocking that
+     * worker on tasks queued behind the rest of the batch could starve the pool, so the parts are forked from the
+     * worker instead, which runs them itself while it waits on them.
+     */
+    private static class SharedPool
+    {
+        private static final ForkJoinPool POOL = new ForkJoinPool();
+
+        /**
+         * Runs every task, and waits for all of them to finish.
+         *
+         * @param tasks the tasks to run.
+         * @return a future holding the result of each task, in the same order as the tasks.
+         */
+        static <T> List<Future<T>> invokeAll(final List<Callable<T>> tasks)
+        {
+            if (!ForkJoinTask.inForkJoinPool())
+            {
+                return POOL.invokeAll(tasks);
+            }
+            final List<Future<T>> futures = new ArrayList<>(tasks.size());
+            final List<ForkJoinTask<T>> forked = new ArrayList<>(tasks.size());
+            for (Callable<T> task : tasks)
+            {
+                final ForkJoinTask<T> fork_join_task = ForkJoinTask.adapt(task);
+                fork_join_task.fork();
+                forked.add(fork_join_task);
+                futures.add(fork_join_task);
+            }
+            // Join the most recently forked first, since those are the ones still on this worker's queue
+            for (int i = forked.size() - 1; i >= 0; i--)
+            {
+                forked.get(i).quietlyJoin();
+            }
+            return futures;
+        }
+
+        /**
+         * Runs a task, and waits for it to finish.
+         *
+         * @param task the task to run.
+         */
+        static void invoke(final ForkJoinTask<?> task)
+        {
+            if (ForkJoinTask.inForkJoinPool())
+            {
+                task.invoke();
+            }
+            else
+            {
+                POOL.invoke(task);
+            }
+        }
+    }
+
+    /**
+     * Holds the executor used for estimates run without one passed in, which is only created the first time it is needed.
+     */
+    private static class AsyncExecutor
+    {
+        private static final int QUEUE_SIZE = 1024;
+        private static final ThreadPoolExecutor EXECUTOR;
+
+        static
+        {
+            final int threads = Runtime.getRuntime().availableProcessors();
+            EXECUTOR = new ThreadPoolExecutor(threads, threads, 60L, TimeUnit.SECONDS, new LinkedBlockingQueue<Runnable>(QUEUE_SIZE), new ThreadFactory()
+            {
+                private final AtomicLong count = new AtomicLong();
+
+                @Override
+                public Thread newThread(Runnable runnable)
+                {
+                    final Thread thread = new Thread(runnable, "nbvcxz-estimate-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                }
+            });
+            EXECUTOR.allowCoreThreadTimeOut(true);
+        }
+    }
+
+    /**
+     * An estimate run on an executor, which cancels the deadline of the estimate when it is cancelled.
+     */
+    private static class EstimateTask extends FutureTask<Result>
+    {
+        private final Deadline deadline;
+
+        EstimateTask(final Callable<Result> callable, final Deadline deadline)
+        {
+            super(callable);
+            this.deadline = deadline;
+        }
+
+        @Override
+        public boolean cancel(final boolean may_interrupt)
+        {
+            final boolean cancelled = super.cancel(may_interrupt);
+            if (cancelled)
+            {
+                deadline.cancel();
+            }
+            return cancelled;
+        }
+    }
+
+    /**
+     * An estimate in a batch which is pending, along with how many copies of its password are waiting on it.
+     */
+    private static class PendingEstimate
+    {
+        private final String password;
+        private final FutureTask<Result> task;
+        private int copies;
+
+        PendingEstimate(final String password, final FutureTask<Result> task)
+        {
+            this.password = password;
+            this.task = task;
+            this.copies = 0;
+        }
+    }
+
+    /**
+     * Keeps track of how an estimate went, so it can be reported on the {@link Result}.
+     */
+    private static class EstimationTracker
+    {
+        private final Set<EstimationPhase> cut_short_phases = EnumSet.noneOf(EstimationPhase.class);
+        private final Map<EstimationPhase, Long> phase_nanos = new EnumMap<>(EstimationPhase.class);
+        private EstimationStrategy strategy;
+    }
+
+    /**
+     * Limits the time and work the recursive combination search can take.  When a work budget is configured, it is
+     * used instead of the timeout, so the search stops at the same point no matter how fast the machine is.
+     * The deadline of the estimate applies either way.
+     */
+    private static class SearchLimit
+    {
+        private final long stop_time;
+        private final long work_budget;
+        private final Deadline deadline;
+        private long work;
+
+        SearchLimit(final Configuration configuration, final Deadline deadline)
+        {
+            this.stop_time = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(configuration.getCombinationAlgorithmTimeout());
+            this.work_budget = configuration.getCombinationAlgorithmWorkBudget();
+            this.deadline = deadline;
+            this.work = 0;
+        }
+
+        /**
+         * Counts one more combination explored, and checks that the search can keep going.
+         *
+         * @throws TimeoutException if the search took too long, used up its work budget, or the deadline passed
+         */
+        void check() throws TimeoutException
+        {
+            if (work_budget > 0)
+            {
+                if (++work > work_budget)
+                {
+                    throw new TimeoutException("Explored too many combinations to get best matches");
+                }
+            }
+            else if (System.nanoTime() - stop_time > 0)
+            {
+                throw new TimeoutException("Took too long to get best matches");
+            }
+            if (deadline.isExpired())
+            {
+                throw new TimeoutException("Deadline passed while getting best matches");
+            }
+        }
+    }
+
+    /**
+     * The state shared by every worker of a parallel combination search.  The limits are the same as for
+     * {@link SearchLimit}, but work is counted in batches so the workers don't all contend on every combination.
+     */
+    private static class ParallelSearch
+    {
+        private static final int WORK_BATCH = 256;
+
+        private final MatchGraph match_graph;
+        private final double[] min_average_from;
+        private final long stop_time;
+        private final long work_budget;
+        private final Deadline deadline;
+        private final AtomicLong work = new AtomicLong();
+        private final AtomicReference<Combination> best = new AtomicReference<>();
+        private volatile String stop_reason;
+
+        ParallelSearch(final Configuration configuration, final Deadline deadline, final MatchGraph match_graph)
+        {
+            this.match_graph = match_graph;
+            this.stop_time = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(configuration.getCombinationAlgorithmTimeout());
+            this.work_budget = configuration.getCombinationAlgorithmWorkBudget();
+            this.deadline = deadline;
+
+            // The lowest average entropy of any match starting at or after each id, used to bound the rest of a combination.
+            this.min_average_from = new double[match_graph.size() + 1];
+            min_average_from[match_graph.size()] = Double.MAX_VALUE;
+            for (int id = match_graph.size() - 1; id >= 0; id--)
+            {
+                min_average_from[id] = Math.min(min_average_from[id + 1], match_graph.getMatch(id).getAverageEntropy());
+            }
+        }
+
+        /**
+         * Counts one more combination explored.  Every worker counts on the same counter, so the search stops as soon
+         * as the work budget is used up, the same as {@code findBestCombination}.
+         * <br><br>
+         * Reading the clock costs more than exploring a combination, so the timeout and the deadline of the estimate
+         * are only checked for the first combination, and then every {@link #WORK_BATCH} combinations explored by any
+         * worker.  The search can run up to that many combinations past the timeout or deadline.
+         *
+         * @return false if the search should stop
+         */
+        boolean addWork()
+        {
+            final long count = work.incrementAndGet();
+            if (work_budget > 0 && count > work_budget)
+            {
+                stop_reason = "Explored too many combinations to get best matches";
+            }
+            else if (count % WORK_BATCH == 1)
+            {
+                checkTime();
+            }
+            return stop_reason == null;
+        }
+
+        /**
+         * Stops the search if it is past its timeout or the deadline of the estimate.
+         */
+        private void checkTime()
+        {
+            if (work_budget <= 0 && System.nanoTime() - stop_time > 0)
+            {
+                stop_reason = "Took too long to get best matches";
+            }
+            if (deadline.isExpired())
+            {
+                stop_reason = "Deadline passed while getting best matches";
+            }
+        }
+
+        /**
+         * Checks if any combination continuing from a match could still beat the best combination found so far.
+         * A combination continuing from the match covers at most the rest of the password, and can only cover all of
+         * it with at least the lowest average entropy of any match which could follow.
+         *
+         * @param id              the id of the last match in the combination
+         * @param matches_length  the length of the password the combination takes up
+         * @param matches_entropy the entropy of the combination
+         * @return false if no combination continuing from this match can beat the best combination
+         */
+        boolean canBeatBest(final int id, final int matches_length, final double matches_entropy)
+        {
+            final Combination best_combination = best.get();
+            if (best_combination == null)
+            {
+                return true;
+            }
+            final int remaining_length = match_graph.isLeaf(id) ? 0 : match_graph.getPasswordLength() - match_graph.getMatch(id).getEndIndex() - 1;
+            final int max_length = matches_length + remaining_length;
+            if (max_length != best_combination.length)
+            {
+                return max_length > best_combination.length;
+            }
+            final double min_entropy = remaining_length == 0 ? matches_entropy : matches_entropy + min_average_from[match_graph.getSuccessorStart(id)] * remaining_length;
+            // Leave room for rounding, pruning too little only costs time.
+            return min_entropy < best_combination.entropy + 1e-9;
+        }
+
+        /**
+         * Replaces the best combination if the one passed in is better.  Ties in length and entropy go to the
+         * combination which comes first in the order {@code findBestCombination} would find them.
+         *
+         * @param combination a complete combination
+         */
+        void offer(final Combination combination)
+        {
+            while (true)
+            {
+                final Combination best_combination = best.get();
+                if (best_combination != null && !combination.isBetterThan(best_combination))
+                {
+                    return;
+                }
+                if (best.compareAndSet(best_combination, combination))
+                {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * A complete combination of matches from a parallel combination search.
+     */
+    private static class Combination
+    {
+        private final int[] ids;
+        private final int length;
+        private final double entropy;
+
+        Combination(final int[] ids, final int length, final double entropy)
+        {
+            this.ids = ids;
+            this.length = length;
+            this.entropy = entropy;
+        }
+
+        boolean isBetterThan(final Combination other)
+        {
+            if (length != other.length || entropy != other.entropy)
+            {
+                return isBetterCombination(length, entropy, other.length, other.entropy);
+            }
+            // Ids are ordered by start index, so the combination found first has the lowest id where they differ.
+            for (int i = 0; i < Math.min(ids.length, other.ids.length); i++)
+            {
+                if (ids[i] != other.ids[i])
+                {
+                    return ids[i] < other.ids[i];
+                }
+            }
+            return ids.length < other.ids.length;
+        }
+    }
+
+    /**
+     * Builds out the combinations continuing from one match for a parallel combination search.  Subtrees are forked
+     * off to other workers while the pool is running low on queued work, and searched in place otherwise.
+     */
+    private static class ParallelSearchTask extends RecursiveAction
+    {
+        private static final long serialVersionUID = 1L;
+
+        private final ParallelSearch search;
+        private final int id;
+        private final int[] ids;
+        private final int depth;
+        private final int matches_length;
+        private final double matches_entropy;
+
+        /**
+         * @param search          the state shared by every worker
+         * @param id              the id of the match to continue with, or -1 to start with every seed
+         * @param ids             the ids of the matches before this one, which this task may write past depth
+         * @param depth           the number of matches before this one
+         * @param matches_length  the length of the password the matches before this one take up
+         * @param matches_entropy the entropy of the matches before this one
+         */
+        ParallelSearchTask(final ParallelSearch search, final int id, final int[] ids, final int depth, final int matches_length, final double matches_entropy)
+        {
+            this.search = search;
+            this.id = id;
+            this.ids = ids;
+            this.depth = depth;
+            this.matches_length = matches_length;
+            this.matches_entropy = matches_entropy;
+        }
+
+        @Override
+        protected void compute()
+        {
+            if (id == -1)
+            {
+                generateFrom(0, search.match_graph.getSeedCount(), 0, 0, 0);
+            }
+            else
+            {
+                generateMatches(id, depth, matches_length, matches_entropy);
+            }
+        }
+
+        private void generateFrom(final int first, final int end, final int next_depth, final int length, final double entropy)
+        {
+            List<ParallelSearchTask> forked = null;
+            for (int next = first; next < end; next++)
+            {
+                if (next < end - 1 && ForkJoinTask.getSurplusQueuedTaskCount() < 2)
+                {
+                    ParallelSearchTask task = new ParallelSearchTask(search, next, Arrays.copyOf(ids, ids.length), next_depth, length, entropy);
+                    task.fork();
+                    if (forked == null)
+                    {
+                        forked = new ArrayList<>();
+                    }
+                    forked.add(task);
+                }
+                else
+                {
+                    generateMatches(next, next_depth, length, entropy);
+                }
+            }
+            if (forked != null)
+            {
+                for (ParallelSearchTask task : forked)
+                {
+                    task.join();
+                }
+            }
+        }
+
+        private void generateMatches(final int id, final int depth, int length, double entropy)
+        {
+            if (search.stop_reason != null)
+            {
+                return;
+            }
+            if (!search.addWork())
+            {
+                return;
+            }
+
+            final MatchGraph match_graph = search.match_graph;
+            final Match match = match_graph.getMatch(id);
+            length += match.getLength();
+            entropy += match.calculateEntropy();
+
+            if (!search.canBeatBest(id, length, entropy))
+            {
+                return;
+            }
+            ids[depth] = id;
+
+            if (match_graph.isLeaf(id))
+            {
+                search.offer(new Combination(Arrays.copyOf(ids, depth + 1), length, entropy));
+                return;
+            }
+            generateFrom(match_graph.getSuccessorStart(id), match_graph.getSuccessorEnd(id), depth + 1, length, entropy);
+        }
+    }
+
+    /**
+     * Creates the {@link BruteForceMatch} for an index of the password the first time it is needed, so indexes
+     * which are covered by other matches never get one.
+     */
+    private static class BruteForceMatches
+    {
+        private final Configuration configuration;
+        private final String password;
+        private final Match[] matches;
+
+        BruteForceMatches(final Configuration configuration, final String password)
+        {
+            this.configuration = configuration;
+            this.password = password;
+            this.matches = new Match[password.length()];
+        }
+
+        Match get(final int index)
+        {
+            Match match = matches[index];
+            if (match == null)
+            {
+                match = createBruteForceMatch(configuration, password, index);
+                matches[index] = match;
+            }
+            return match;
+        }
+
+        /**
+         * @return the entropy of the match for an index, without creating it.
+         */
+        double getEntropy(final int index)
+        {
+            return BruteForceMatch.getEntropy(password.charAt(index));
+        }
     }
 
     /**
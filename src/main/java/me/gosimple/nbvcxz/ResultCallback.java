@@ -0,0 +1,19 @@
+package me.gosimple.nbvcxz;
+
+import me.gosimple.nbvcxz.scoring.Result;
+
+/**
+ * Receives the results of a batch estimate, see {@link Nbvcxz#estimateAll(java.util.Iterator, java.util.concurrent.Executor, int, ResultCallback)}.
+ *
+ * @author Adam Brusselback.
+ */
+public interface ResultCallback
+{
+    /**
+     * Called on the thread which started the batch, once for every password, in the order the passwords were given.
+     *
+     * @param password the password which was estimated.
+     * @param result   the {@code Result} of the estimate, which is shared by every copy of the same password.
+     */
+    void onResult(String password, Result result);
+}
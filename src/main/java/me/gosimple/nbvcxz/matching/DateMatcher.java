@@ -3,6 +3,7 @@ package me.gosimple.nbvcxz.matching;
 import me.gosimple.nbvcxz.matching.match.DateMatch;
 import me.gosimple.nbvcxz.matching.match.Match;
 import me.gosimple.nbvcxz.resources.Configuration;
+import me.gosimple.nbvcxz.resources.Deadline;
 
 import java.util.ArrayList;
 import java.util.List;
@@ -14,10 +15,13 @@ import java.util.regex.Pattern;
  *
  * @author Adam Brusselback
  */
-public final class DateMatcher implements PasswordMatcher
+public final class DateMatcher implements IncrementalPasswordMatcher
 {
 
     private static final Pattern DATE_WITHOUT_SEPARATOR = Pattern.compile("^\\d{6,8}$");
+    // The longest part of a password which could match each kind of date
+    private static final int MAX_LENGTH_WITHOUT_SEPARATOR = 8;
+    private static final int MAX_LENGTH_WITH_SEPARATOR = 10;
     private static final Pattern DATE_WITH_SEPARATOR_YEAR_SUFFIX = Pattern.compile(""
             + "^(\\d{1,2})"                        // Day (or month)
             + "(\\s|-|/|\\\\|_|\\.)"              // Separator
@@ -42,99 +46,21 @@ public final class DateMatcher implements PasswordMatcher
 
         // Initialize the list of matching dates
         ArrayList<DateMatch> dateMatches = new ArrayList<>();
+        Deadline deadline = Deadline.current();
+        Matcher matcher = DATE_WITHOUT_SEPARATOR.matcher(password);
 
-        // Create all possible subsequences of the password
+        // Create all possible subsequences of the password which are short enough to be a date
         for (int start = 0; start < password.length(); start++)
         {
-            for (int end = start + 4; end <= password.length(); end++)
+            // Return the dates found so far once the deadline passes
+            if (deadline.isExpired())
             {
-
-                // Get the subsequence
-                String passwordChunk = password.substring(start, end);
-
-                // Quick verfication that it is made of numbers
-                if (DATE_WITHOUT_SEPARATOR.matcher(passwordChunk).find())
-                {
-
-                    // Extract the possible combinaison of dateAndMonth/year from the
-                    // subsequence (eg: 121234 => 1212/34 and 12/1234)
-                    ArrayList<PartialDateSplit> possiblePartialSplit = new ArrayList<>();
-                    int chunkLength = passwordChunk.length();
-                    if (chunkLength <= 6)
-                    {
-                        // start with a 2 digits year
-                        possiblePartialSplit.add(new PartialDateSplit(
-                                passwordChunk.substring(2),
-                                passwordChunk.substring(0, 2)
-                        ));
-                        // end with a 2 digits year
-                        possiblePartialSplit.add(new PartialDateSplit(
-                                passwordChunk.substring(0, chunkLength - 2),
-                                passwordChunk.substring(chunkLength - 2, chunkLength)
-                        ));
-                    }
-                    if (chunkLength >= 6)
-                    {
-                        // start with a 4 digits year
-                        possiblePartialSplit.add(new PartialDateSplit(
-                                passwordChunk.substring(4),
-                                passwordChunk.substring(0, 4)
-                        ));
-                        // end with a 4 digits year
-                        possiblePartialSplit.add(new PartialDateSplit(
-                                passwordChunk.substring(0, chunkLength - 4),
-                                passwordChunk.substring(chunkLength - 4, chunkLength)
-                        ));
-                    }
-
-                    // For each dateAndMonth/year extract the different possible full date
-                    // (eg: 123/1998 => 1/23/1998 and 12/3/1998)
-                    ArrayList<FullDateSplit> possibleFullSplit = new ArrayList<>();
-                    for (PartialDateSplit split : possiblePartialSplit)
-                    {
-                        int dateAndMonthLength = split.dateAndMonth.length();
-                        if (dateAndMonthLength == 2)
-                        {
-                            possibleFullSplit.add(new FullDateSplit(
-                                    split.dateAndMonth.substring(0, 1),
-                                    split.dateAndMonth.substring(1, 2),
-                                    split.year
-                            ));
-                        }
-                        else if (dateAndMonthLength == 3)
-                        {
-                            possibleFullSplit.add(new FullDateSplit(
-                                    split.dateAndMonth.substring(0, 1),
-                                    split.dateAndMonth.substring(1, 3),
-                                    split.year
-                            ));
-                            possibleFullSplit.add(new FullDateSplit(
-                                    split.dateAndMonth.substring(0, 2),
-                                    split.dateAndMonth.substring(2, 3),
-                                    split.year
-                            ));
-                        }
-                        else if (dateAndMonthLength == 4)
-                        {
-                            possibleFullSplit.add(new FullDateSplit(
-                                    split.dateAndMonth.substring(0, 2),
-                                    split.dateAndMonth.substring(2, 4),
-                                    split.year
-                            ));
-                        }
-                    }
-
-                    // Add to the final date list all the valid dates
-                    for (FullDateSplit split : possibleFullSplit)
-                    {
-                        ValidDateSplit vSplit = isDateValid(split.date, split.month, split.year);
-                        if (vSplit != null)
-                        {
-                            dateMatches.add(new DateMatch(passwordChunk, configuration, vSplit.date, vSplit.month, vSplit.year, "", start, end - 1));
-                        }
-                    }
-
-                }
+                break;
+            }
+            for (int end = start + 4; end <= Math.min(password.length(), start + MAX_LENGTH_WITHOUT_SEPARATOR); end++)
+            {
+                // Look for dates in the subsequence
+                matchDateWithoutSeparator(configuration, matcher, password, start, end, dateMatches);
             }
         }
 
@@ -154,43 +80,159 @@ public final class DateMatcher implements PasswordMatcher
 
         // Initialize the list of matching dates
         ArrayList<DateMatch> dateMatches = new ArrayList<>();
+        Deadline deadline = Deadline.current();
+        Matcher suffixMatcher = DATE_WITH_SEPARATOR_YEAR_SUFFIX.matcher(password);
+        Matcher prefixMatcher = DATE_WITH_SEPARATOR_YEAR_PREFIX.matcher(password);
 
-        // Create all possible subsequences of the password
+        // Create all possible subsequences of the password which are short enough to be a date
         for (int start = 0; start < password.length(); start++)
         {
-            for (int end = start + 6; end <= password.length(); end++)
+            // Return the dates found so far once the deadline passes
+            if (deadline.isExpired())
             {
+                break;
+            }
+            for (int end = start + 6; end <= Math.min(password.length(), start + MAX_LENGTH_WITH_SEPARATOR); end++)
+            {
+                // Look for dates in the subsequence
+                matchDateWithSeparator(configuration, suffixMatcher, prefixMatcher, password, start, end, dateMatches);
+            }
+        }
+
+        return dateMatches;
+
+    }
 
-                // Get the subsequence
-                String passwordChunk = password.substring(start, end);
+    /**
+     * Extract the possible dates without separator from a part of the password.  The matcher is reused for every part
+     * of the password, so the part is only copied out of the password once it is known to be made of numbers.
+     *
+     * @param matcher     a matcher for {@code DATE_WITHOUT_SEPARATOR} over the whole password
+     * @param password    the password that is analyzed
+     * @param start       the index in the password the part starts at
+     * @param end         the index in the password after the part ends
+     * @param dateMatches the list of dates to add to
+     */
+    private static void matchDateWithoutSeparator(Configuration configuration, Matcher matcher, String password, int start, int end, List<DateMatch> dateMatches)
+    {
+        // Quick verfication that it is made of numbers
+        if (matcher.region(start, end).find())
+        {
+            String passwordChunk = password.substring(start, end);
 
-                // Extract the date (if there is one) with the year as prefix
-                Matcher m1 = DATE_WITH_SEPARATOR_YEAR_SUFFIX.matcher(passwordChunk);
-                if (m1.matches())
+            // Extract the possible combinaison of dateAndMonth/year from the
+            // subsequence (eg: 121234 => 1212/34 and 12/1234)
+            ArrayList<PartialDateSplit> possiblePartialSplit = new ArrayList<>();
+            int chunkLength = passwordChunk.length();
+            if (chunkLength <= 6)
+            {
+                // start with a 2 digits year
+                possiblePartialSplit.add(new PartialDateSplit(
+                        passwordChunk.substring(2),
+                        passwordChunk.substring(0, 2)
+                ));
+                // end with a 2 digits year
+                possiblePartialSplit.add(new PartialDateSplit(
+                        passwordChunk.substring(0, chunkLength - 2),
+                        passwordChunk.substring(chunkLength - 2, chunkLength)
+                ));
+            }
+            if (chunkLength >= 6)
+            {
+                // start with a 4 digits year
+                possiblePartialSplit.add(new PartialDateSplit(
+                        passwordChunk.substring(4),
+                        passwordChunk.substring(0, 4)
+                ));
+                // end with a 4 digits year
+                possiblePartialSplit.add(new PartialDateSplit(
+                        passwordChunk.substring(0, chunkLength - 4),
+                        passwordChunk.substring(chunkLength - 4, chunkLength)
+                ));
+            }
+
+            // For each dateAndMonth/year extract the different possible full date
+            // (eg: 123/1998 => 1/23/1998 and 12/3/1998)
+            ArrayList<FullDateSplit> possibleFullSplit = new ArrayList<>();
+            for (PartialDateSplit split : possiblePartialSplit)
+            {
+                int dateAndMonthLength = split.dateAndMonth.length();
+                if (dateAndMonthLength == 2)
                 {
-                    ValidDateSplit split = isDateValid(m1.group(1), m1.group(3), m1.group(4));
-                    if (split != null)
-                    {
-                        dateMatches.add(new DateMatch(passwordChunk, configuration, split.date, split.month, split.year, m1.group(2), start, end - 1));
-                    }
+                    possibleFullSplit.add(new FullDateSplit(
+                            split.dateAndMonth.substring(0, 1),
+                            split.dateAndMonth.substring(1, 2),
+                            split.year
+                    ));
                 }
-
-                // Extract the date (if there is one) with the year as suffix
-                Matcher m2 = DATE_WITH_SEPARATOR_YEAR_PREFIX.matcher(passwordChunk);
-                if (m2.matches())
+                else if (dateAndMonthLength == 3)
+                {
+                    possibleFullSplit.add(new FullDateSplit(
+                            split.dateAndMonth.substring(0, 1),
+                            split.dateAndMonth.substring(1, 3),
+                            split.year
+                    ));
+                    possibleFullSplit.add(new FullDateSplit(
+                            split.dateAndMonth.substring(0, 2),
+                            split.dateAndMonth.substring(2, 3),
+                            split.year
+                    ));
+                }
+                else if (dateAndMonthLength == 4)
                 {
-                    ValidDateSplit split = isDateValid(m2.group(4), m2.group(3), m2.group(1));
-                    if (split != null)
-                    {
-                        dateMatches.add(new DateMatch(passwordChunk, configuration, split.date, split.month, split.year, m2.group(2), start, end - 1));
-                    }
+                    possibleFullSplit.add(new FullDateSplit(
+                            split.dateAndMonth.substring(0, 2),
+                            split.dateAndMonth.substring(2, 4),
+                            split.year
+                    ));
                 }
+            }
 
+            // Add to the final date list all the valid dates
+            for (FullDateSplit split : possibleFullSplit)
+            {
+                ValidDateSplit vSplit = isDateValid(split.date, split.month, split.year);
+                if (vSplit != null)
+                {
+                    dateMatches.add(new DateMatch(passwordChunk, configuration, vSplit.date, vSplit.month, vSplit.year, "", start, end - 1));
+                }
             }
+
         }
+    }
 
-        return dateMatches;
+    /**
+     * Extract the possible dates with a separator from a part of the password.  The matchers are reused for every
+     * part of the password, so the part is only copied out of the password once it is known to be a date.
+     *
+     * @param m1          a matcher for {@code DATE_WITH_SEPARATOR_YEAR_SUFFIX} over the whole password
+     * @param m2          a matcher for {@code DATE_WITH_SEPARATOR_YEAR_PREFIX} over the whole password
+     * @param password    the password that is analyzed
+     * @param start       the index in the password the part starts at
+     * @param end         the index in the password after the part ends
+     * @param dateMatches the list of dates to add to
+     */
+    private static void matchDateWithSeparator(Configuration configuration, Matcher m1, Matcher m2, String password, int start, int end, List<DateMatch> dateMatches)
+    {
+        // Extract the date (if there is one) with the year as prefix
+        if (m1.region(start, end).matches())
+        {
+            ValidDateSplit split = isDateValid(m1.group(1), m1.group(3), m1.group(4));
+            if (split != null)
+            {
+                dateMatches.add(new DateMatch(password.substring(start, end), configuration, split.date, split.month, split.year, m1.group(2), start, end - 1));
+            }
+        }
 
+        // Extract the date (if there is one) with the year as suffix
+        if (m2.region(start, end).matches())
+        {
+            ValidDateSplit split = isDateValid(m2.group(4), m2.group(3), m2.group(1));
+            if (split != null)
+            {
+                dateMatches.add(new DateMatch(password.substring(start, end), configuration, split.date, split.month, split.year, m2.group(2), start, end - 1));
+            }
+        }
     }
 
     /**
@@ -236,6 +278,30 @@ public final class DateMatcher implements PasswordMatcher
         return dateMatches;
     }
 
+    public List<Match> matchEndingAt(final Configuration configuration, final String password, final int end_index)
+    {
+        List<DateMatch> dateMatches = new ArrayList<>();
+        int end = end_index + 1;
+        Matcher matcher = DATE_WITHOUT_SEPARATOR.matcher(password);
+        for (int start = Math.max(0, end - MAX_LENGTH_WITHOUT_SEPARATOR); start <= end - 4; start++)
+        {
+            matchDateWithoutSeparator(configuration, matcher, password, start, end, dateMatches);
+        }
+        Matcher suffixMatcher = DATE_WITH_SEPARATOR_YEAR_SUFFIX.matcher(password);
+        Matcher prefixMatcher = DATE_WITH_SEPARATOR_YEAR_PREFIX.matcher(password);
+        for (int start = Math.max(0, end - MAX_LENGTH_WITH_SEPARATOR); start <= end - 6; start++)
+        {
+            matchDateWithSeparator(configuration, suffixMatcher, prefixMatcher, password, start, end, dateMatches);
+        }
+        return new ArrayList<Match>(dateMatches);
+    }
+
+    public List<Match> matchWholePassword(final Configuration configuration, final String password)
+    {
+        // Dates only depend on the characters they cover
+        return new ArrayList<>();
+    }
+
     // Represent a partial match during the parsing (contains the date and month
     // concatenated and the year)
     private static class PartialDateSplit
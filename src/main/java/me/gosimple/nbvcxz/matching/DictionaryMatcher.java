@@ -3,109 +3,83 @@ package me.gosimple.nbvcxz.matching;
 import me.gosimple.nbvcxz.matching.match.DictionaryMatch;
 import me.gosimple.nbvcxz.matching.match.Match;
 import me.gosimple.nbvcxz.resources.Configuration;
+import me.gosimple.nbvcxz.resources.Deadline;
 import me.gosimple.nbvcxz.resources.Dictionary;
+import me.gosimple.nbvcxz.resources.DictionaryCache;
+import me.gosimple.nbvcxz.resources.DictionaryHit;
 
 import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collections;
 import java.util.List;
-import java.util.TreeMap;
 
 /**
  * Look for every part of the password that match an entry in our dictionaries
  *
  * @author Adam Brusselback
  */
-public final class DictionaryMatcher implements PasswordMatcher
+public final class DictionaryMatcher implements IncrementalPasswordMatcher
 {
     /**
-     * Removes all leet substitutions from the password and returns a list of plain text versions.
+     * Reverses a range of characters the same way as {@link StringBuilder#reverse()}, keeping surrogate pairs in
+     * order.
      *
-     * @param configuration the configuration file used to estimate entropy.
-     * @param password      the password to translate from leet.
-     * @return a list of all combinations of possible leet translations for the password with all leet removed.
-     */
-    private static List<String> translateLeet(final Configuration configuration, final String password)
-    {
-        final List<String> translations = new ArrayList<>();
-        final TreeMap<Integer, Character[]> replacements = new TreeMap<>();
-
-        for (int i = 0; i < password.length(); i++)
-        {
-            final Character[] replacement = configuration.getLeetTable().get(password.charAt(i));
-            if (replacement != null)
-            {
-                replacements.put(i, replacement);
-            }
-        }
-
-        // Do not bother continuing if we're going to replace every single character
-        if(replacements.keySet().size() == password.length())
-            return translations;
-
-        if (replacements.size() > 0)
-        {
-            final char[] password_char = new char[password.length()];
-            for (int i = 0; i < password.length(); i++)
-            {
-                password_char[i] = password.charAt(i);
-            }
-            replaceAtIndex(replacements, replacements.firstKey(), password_char, translations);
-        }
-
-        return translations;
-    }
-
-    /**
-     * Internal function to recursively build the list of un-leet possibilities.
-     *
-     * @param replacements    TreeMap of replacement index, and the possible characters at that index to be replaced
-     * @param current_index   internal use for the function
-     * @param password        a Character array of the original password
-     * @param final_passwords List of the final passwords to be filled
+     * @param source the characters to reverse.
+     * @param offset the index of the first character to reverse.
+     * @param length the number of characters to reverse.
+     * @param target the buffer to put the reversed characters in, from its start.
      */
-    private static void replaceAtIndex(final TreeMap<Integer, Character[]> replacements, Integer current_index, final char[] password, final List<String> final_passwords)
+    private static void reverse(final char[] source, final int offset, final int length, final char[] target)
     {
-        for (final char replacement : replacements.get(current_index))
+        int j = length;
+        for (int i = 0; i < length; i++)
         {
-            password[current_index] = replacement;
-            if (current_index.equals(replacements.lastKey()))
+            final char c = source[offset + i];
+            if (Character.isHighSurrogate(c) && i + 1 < length && Character.isLowSurrogate(source[offset + i + 1]))
             {
-                final_passwords.add(new String(password));
-            }
-            else if (final_passwords.size() > 100)
-            {
-                // Give up if we've already made 100 replacements
-                return;
+                target[j - 2] = c;
+                target[j - 1] = source[offset + ++i];
+                j -= 2;
             }
             else
             {
-                replaceAtIndex(replacements, replacements.higherKey(current_index), password, final_passwords);
+                target[--j] = c;
             }
         }
     }
 
-
     /**
      * Gets the substitutions for the password.
      *
-     * @param password        the password to get leet substitutions for.
-     * @param unleet_password the password to get leet substitutions for.
+     * @param password        the characters of the password to get leet substitutions for.
+     * @param offset          the index the password starts at in its characters.
+     * @param unleet_password the password with leet substitutions removed.
      * @return a {@code List} of {@code Character[]} that are the leet substitutions for the password.
      */
-    private static List<Character[]> getLeetSub(final String password, final String unleet_password)
+    private static List<Character[]> getLeetSub(final char[] password, final int offset, final String unleet_password)
     {
         List<Character[]> leet_subs = new ArrayList<>();
         for (int i = 0; i < unleet_password.length(); i++)
         {
-            if (password.charAt(i) != unleet_password.charAt(i))
+            if (password[offset + i] != unleet_password.charAt(i))
             {
-                leet_subs.add(new Character[]{password.charAt(i), unleet_password.charAt(i)});
+                leet_subs.add(new Character[]{password[offset + i], unleet_password.charAt(i)});
             }
         }
         return leet_subs;
     }
 
-    private static int distance(CharSequence left, CharSequence right, int threshold)
+    /**
+     * Computes the distance between two values, if it's no more than a threshold.
+     *
+     * @param left      the first value.
+     * @param right     the second value.
+     * @param threshold the most the distance can be.
+     * @param p         a buffer for the costs, at least one longer than the shorter value, which is overwritten.
+     * @param d         another buffer for the costs, at least one longer than the shorter value, which is overwritten.
+     * @return the distance, or -1 if it's greater than the threshold.
+     */
+    private static int distance(CharSequence left, CharSequence right, int threshold, int[] p, int[] d)
     {
         if (left == null || right == null)
         {
@@ -190,8 +164,7 @@ public final class DictionaryMatcher implements PasswordMatcher
             m = right.length();
         }
 
-        int[] p = new int[n + 1]; // 'previous' cost array, horizontally
-        int[] d = new int[n + 1]; // cost array, horizontally
+        // p is the 'previous' cost array, horizontally, and d the cost array, horizontally
         int[] tempD; // placeholder to assist in swapping p and d
 
         // fill in starting table values
@@ -202,8 +175,8 @@ public final class DictionaryMatcher implements PasswordMatcher
         }
         // these fills ensure that the value above the rightmost entry of our
         // stripe will be ignored in following loop iterations
-        Arrays.fill(p, boundary, p.length, Integer.MAX_VALUE);
-        Arrays.fill(d, Integer.MAX_VALUE);
+        Arrays.fill(p, boundary, n + 1, Integer.MAX_VALUE);
+        Arrays.fill(d, 0, n + 1, Integer.MAX_VALUE);
 
         // iterates through t
         for (int j = 1; j <= m; j++)
@@ -264,145 +237,512 @@ public final class DictionaryMatcher implements PasswordMatcher
     public List<Match> match(final Configuration configuration, final String password)
     {
         final List<Match> matches = new ArrayList<>();
+        final Deadline deadline = Deadline.current();
+        final int max_length = configuration.getMaxDictionaryLength();
+        final Part part = new Part(configuration, password, 0, password.length());
 
         // Create all possible sub-sequences of the password
         for (int start = 0; start < password.length(); start++)
         {
+            // Return the matches found so far once the deadline passes
+            if (deadline.isExpired())
+            {
+                break;
+            }
             for (int end = start + 1; end <= password.length(); end++)
             {
-                final String split_password = password.substring(start, end);
+                final boolean whole_password = start == 0 && end == password.length();
+                // Parts longer than every dictionary can't match, so only the whole password is still needed for
+                // the distance match
+                if (end - start > max_length && !whole_password)
+                {
+                    if (start == 0)
+                    {
+                        continue;
+                    }
+                    break;
+                }
+                final boolean in_dictionaries = end - start <= max_length;
+                if (in_dictionaries)
+                {
+                    part.moveTo(start, end);
+                }
 
                 // Iterate through all our dictionaries
                 for (final Dictionary dictionary : configuration.getDictionaries())
                 {
-                    // Match on lower
-                    final String lower_part = split_password.toLowerCase();
-                    {
-                        final Integer lower_rank = dictionary.getDictonary().get(lower_part);
-                        if (lower_rank != null)
-                        {
-                            matches.add(new DictionaryMatch(split_password, configuration, start, end - 1, lower_part, lower_rank, new ArrayList<Character[]>(), dictionary.isExclusion(), false, dictionary.getDictionaryName(), 0));
-                            continue;
-                        }
-                    }
+                    final boolean found = in_dictionaries && matchPart(configuration, dictionary, part, matches);
 
-                    // Only do reversed if it's different than the regular lower.
-                    final String reversed_part = new StringBuilder(lower_part).reverse().toString();
+                    // Run distance match
+                    // Only if we haven't found a match yet, and are matching the whole password
+                    if (!found && whole_password)
                     {
-                        final Integer reversed_rank = dictionary.getDictonary().get(reversed_part);
-                        if (reversed_rank != null)
-                        {
-                            matches.add(new DictionaryMatch(split_password, configuration, start, end - 1, reversed_part, reversed_rank, new ArrayList<Character[]>(), dictionary.isExclusion(), true, dictionary.getDictionaryName(), 0));
-                            continue;
-                        }
+                        matchDistance(configuration, dictionary, password, matches);
                     }
+                }
+            }
+        }
+        // Return all the matches
+        return matches;
+    }
 
-                    if (dictionary.getMaxLength() >= split_password.length())
-                    {
-                        final List<String> unleet_list = translateLeet(configuration, lower_part);
-                        for (final String unleet_part : unleet_list)
-                        {
-                            // Only do unleet if it's different than the regular lower.
-                            final Integer unleet_rank = dictionary.getDictonary().get(unleet_part);
-                            if (unleet_rank != null)
-                            {
-                                final List<Character[]> subs = getLeetSub(lower_part, unleet_part);
-                                matches.add(new DictionaryMatch(split_password, configuration, start, end - 1, unleet_part, unleet_rank, subs, dictionary.isExclusion(), false, dictionary.getDictionaryName(), 0));
-                                continue;
-                            }
-
-                            // Only do reversed if it's different than unleet.
-                            final String reversed_unleet_part = new StringBuilder(unleet_part).reverse().toString();
-                            {
-                                final Integer reversed_unleet_rank = dictionary.getDictonary().get(reversed_unleet_part);
-                                if (reversed_unleet_rank != null)
-                                {
-                                    final List<Character[]> subs = getLeetSub(reversed_part, reversed_unleet_part);
-                                    matches.add(new DictionaryMatch(split_password, configuration, start, end - 1, reversed_unleet_part, reversed_unleet_rank, subs, dictionary.isExclusion(), true, dictionary.getDictionaryName(), 0));
-                                }
-                            }
-                        }
-                    }
+    public List<Match> matchEndingAt(final Configuration configuration, final String password, final int end_index)
+    {
+        final List<Match> matches = new ArrayList<>();
+        final int first_start = Math.max(0, end_index + 1 - configuration.getMaxDictionaryLength());
+        final Part part = new Part(configuration, password, first_start, end_index + 1);
+        for (int start = first_start; start <= end_index; start++)
+        {
+            part.moveTo(start, end_index + 1);
+            for (final Dictionary dictionary : configuration.getDictionaries())
+            {
+                matchPart(configuration, dictionary, part, matches);
+            }
+        }
+        return matches;
+    }
 
-                    // Run distance match
-                    // Only if we haven't found a match yet
+    public List<Match> matchWholePassword(final Configuration configuration, final String password)
+    {
+        final List<Match> matches = new ArrayList<>();
+        final Part part = new Part(configuration, password, 0, password.length());
+        part.moveTo(0, password.length());
+        for (final Dictionary dictionary : configuration.getDictionaries())
+        {
+            if (dictionary.lookup(part.lower, part.lower_offset, part.lower_length) == null && dictionary.lookup(part.getReversed(), 0, part.lower_length) == null)
+            {
+                matchDistance(configuration, dictionary, password, matches);
+            }
+        }
+        return matches;
+    }
+
+    /**
+     * Matches a part of the password against a dictionary, as it is, reversed, and with leet substitutions removed.
+     *
+     * @param configuration the configuration file used to estimate entropy.
+     * @param dictionary    the dictionary to match against.
+     * @param part          the part of the password to match.
+     * @param matches       the list of matches to add to.
+     * @return true if the part matched the dictionary as it is, or reversed.
+     */
+    private static boolean matchPart(final Configuration configuration, final Dictionary dictionary, final Part part, final List<Match> matches)
+    {
+        final List<DictionaryHit> hits = lookup(configuration, dictionary, part);
+        if (hits.isEmpty())
+        {
+            return false;
+        }
+
+        final String split_password = part.getSplitPassword();
+        final int end = part.start + split_password.length();
+        for (final DictionaryHit hit : hits)
+        {
+            final List<Character[]> subs;
+            if (hit.isLeet())
+            {
+                if (hit.isReversed())
+                {
+                    subs = getLeetSub(part.getReversed(), 0, hit.getDictionaryValue());
+                }
+                else
+                {
+                    subs = getLeetSub(part.lower, part.lower_offset, hit.getDictionaryValue());
+                }
+            }
+            else
+            {
+                subs = new ArrayList<>();
+            }
+            matches.add(new DictionaryMatch(split_password, configuration, part.start, end - 1, hit.getDictionaryValue(), hit.getRank(), subs, dictionary.isExclusion(), hit.isReversed(), dictionary.getDictionaryName(), 0));
+        }
+        return !hits.get(0).isLeet();
+    }
+
+    /**
+     * Gets the values in a dictionary found for a part of the password, from the cache of the configuration if the
+     * part was looked up before.
+     *
+     * @param configuration the configuration file used to estimate entropy.
+     * @param dictionary    the dictionary to look in.
+     * @param part          the part of the password to look up.
+     * @return the values found for the part, or an empty list if there were none.
+     */
+    private static List<DictionaryHit> lookup(final Configuration configuration, final Dictionary dictionary, final Part part)
+    {
+        // The cache is keyed on the part, so only copy it out when there is a cache to use
+        final DictionaryCache cache = configuration.getDictionaryCacheSize() > 0 ? configuration.getDictionaryCache(dictionary) : null;
+        List<DictionaryHit> hits = cache == null ? null : cache.get(part.getLowerPart());
+        if (hits == null)
+        {
+            hits = findHits(dictionary, part);
+            if (cache != null && !hits.isEmpty())
+            {
+                cache.put(part.getLowerPart(), hits);
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * Looks up a part of the password in a dictionary, as it is, reversed, and with leet substitutions removed.
+     *
+     * @param dictionary the dictionary to look in.
+     * @param part       the part of the password to look up.
+     * @return the values found for the part, or an empty list if there were none.
+     */
+    private static List<DictionaryHit> findHits(final Dictionary dictionary, final Part part)
+    {
+        // Match on lower
+        final DictionaryHit lower_hit = getHit(dictionary, part.lower, part.lower_offset, part.lower_length, false, false);
+        if (lower_hit != null)
+        {
+            return Collections.singletonList(lower_hit);
+        }
+
+        // Only do reversed if it's different than the regular lower.
+        final DictionaryHit reversed_hit = getHit(dictionary, part.getReversed(), 0, part.lower_length, true, false);
+        if (reversed_hit != null)
+        {
+            return Collections.singletonList(reversed_hit);
+        }
+
+        if (dictionary.getMaxLength() >= part.lower_length)
+        {
+            return part.findLeetHits(dictionary);
+        }
+        return Collections.emptyList();
+    }
+
+    /**
+     * Looks up a range of characters in a dictionary.
+     *
+     * @param dictionary the dictionary to look in.
+     * @param buffer     the characters to look up.
+     * @param offset     the index of the first character to look up.
+     * @param length     the number of characters to look up.
+     * @param reversed   whether the characters are a reversed form of the part.
+     * @param leet       whether the characters are the part with leet substitutions removed.
+     * @return the hit for the characters, or null if they aren't in the dictionary.
+     */
+    private static DictionaryHit getHit(final Dictionary dictionary, final char[] buffer, final int offset, final int length, final boolean reversed, final boolean leet)
+    {
+        final String word = dictionary.lookup(buffer, offset, length);
+        if (word == null)
+        {
+            return null;
+        }
+        final Integer rank = dictionary.getRank(word);
+        return rank == null ? null : new DictionaryHit(word, rank, reversed, leet);
+    }
+
+    /**
+     * Matches the whole password against a dictionary, allowing for some distance between the two.
+     *
+     * @param configuration the configuration file used to estimate entropy.
+     * @param dictionary    the dictionary to match against.
+     * @param password      the whole password.
+     * @param matches       the list of matches to add to.
+     */
+    private static void matchDistance(final Configuration configuration, final Dictionary dictionary, final String password, final List<Match> matches)
+    {
+        if (!configuration.isDistanceCalc())
+        {
+            return;
+        }
+
+        // Weed out false positives for very short values
+        if (password.length() < 3)
+        {
+            return;
+        }
+
+
+        // How far off the distance is allowed to be
+        final int threshold = password.length() / 4;
+
+        // Indexes to iterate over only a portion of the dictionary
+        final int start_index;
+        if (dictionary.getSortedDictionaryLengthLookup().containsKey(password.length() - threshold))
+        {
+            start_index = dictionary.getSortedDictionaryLengthLookup().get(password.length() - threshold);
+        }
+        else
+        {
+            start_index = dictionary.getSortedDictionary().size();
+        }
+        final int end_index;
+        if (dictionary.getSortedDictionaryLengthLookup().containsKey(password.length() + threshold + 1))
+        {
+            end_index = dictionary.getSortedDictionaryLengthLookup().get(password.length() + threshold + 1);
+        }
+        else
+        {
+            end_index = dictionary.getSortedDictionary().size();
+        }
+
+        // Values for the matches found
+        int dist_min = Integer.MAX_VALUE;
+        String dist_val = null;
+        Integer dist_rank = null;
+
+        // Iterate over the subset of the dictionary (based on length) which could
+        // possibly contain matches for the password
+        final Deadline deadline = Deadline.current();
+        // The cost arrays are reused for every key, as they only need to be as long as the password
+        final int[] p = new int[password.length() + 1];
+        final int[] d = new int[password.length() + 1];
+        for (final String key : dictionary.getSortedDictionary().subList(start_index, end_index))
+        {
+            if (deadline.isExpired())
+            {
+                break;
+            }
+            int dist_curr = distance(password, key, threshold, p, d);
+            if (dist_curr != -1)
+            {
+                final Integer dist_curr_rank = dictionary.getRank(key);
+                // If true, set the vars which contain the lowest values found so far
+                if (dist_curr <= dist_min && (dist_rank == null || dist_curr_rank <= dist_rank))
+                {
+                    dist_min = dist_curr;
+                    dist_val = key;
+                    dist_rank = dist_curr_rank;
+                }
+            }
+        }
+
+        // Add the match if one was found
+        if (dist_rank != null)
+        {
+            matches.add(new DictionaryMatch(password, configuration, 0, password.length() - 1, dist_val, dist_rank, new ArrayList<Character[]>(), dictionary.isExclusion(), false, dictionary.getDictionaryName(), dist_min));
+        }
+    }
+
+    /**
+     * A part of the password, along with the forms of it which are looked up in the dictionaries.  One is made for each
+     * password and moved over each part of it, so the forms of every part are built in the same buffers, and only
+     * copied into a {@code String} when they match.
+     */
+    private static final class Part
+    {
+        private final Configuration configuration;
+        private final String password;
+        private final int from;
+        // The range of the password parts can be in, in lower case, when it can be lower cased a part at a time
+        private final char[] lower_password;
+        private char[] lower_buffer;
+        private char[] reversed;
+        private char[] unleet;
+        private char[] reversed_unleet;
+        private int[] leet_indexes;
+        private char[][] leet_replacements;
+
+        private int start;
+        private int end;
+        private char[] lower;
+        private int lower_offset;
+        private int lower_length;
+        private String split_password;
+        private String lower_part;
+        private boolean reversed_built;
+        private int leet_count;
+        private int translations;
+        private List<DictionaryHit> leet_hits;
+
+        /**
+         * @param configuration the configuration file used to estimate entropy.
+         * @param password      the whole password.
+         * @param from          the start of the range of the password the parts will be in.
+         * @param to            the end of the range of the password the parts will be in, exclusive.
+         */
+        Part(final Configuration configuration, final String password, final int from, final int to)
+        {
+            this.configuration = configuration;
+            this.password = password;
+            this.from = from;
+            this.lower_password = isAscii(password, from, to) ? password.substring(from, to).toLowerCase().toCharArray() : null;
+            allocate(to - from);
+        }
+
+        /**
+         * Lower casing ASCII never depends on the characters around it, or changes the length, so the range can be
+         * lower cased once instead of one part at a time.
+         */
+        private static boolean isAscii(final String password, final int from, final int to)
+        {
+            for (int i = from; i < to; i++)
+            {
+                if (password.charAt(i) >= 0x80)
+                {
+                    return false;
+                }
+            }
+            return true;
+        }
+
+        private void allocate(final int capacity)
+        {
+            lower_buffer = new char[capacity];
+            reversed = new char[capacity];
+            unleet = new char[capacity];
+            reversed_unleet = new char[capacity];
+            leet_indexes = new int[capacity];
+            leet_replacements = new char[capacity][];
+        }
+
+        void moveTo(final int start, final int end)
+        {
+            this.start = start;
+            this.end = end;
+            this.split_password = null;
+            this.reversed_built = false;
+            this.leet_count = -1;
+            if (lower_password != null)
+            {
+                lower = lower_password;
+                lower_offset = start - from;
+                lower_length = end - start;
+                lower_part = null;
+            }
+            else
+            {
+                lower_part = getSplitPassword().toLowerCase();
+                if (lower_part.length() > reversed.length)
+                {
+                    allocate(lower_part.length());
+                }
+                lower_part.getChars(0, lower_part.length(), lower_buffer, 0);
+                lower = lower_buffer;
+                lower_offset = 0;
+                lower_length = lower_part.length();
+            }
+        }
+
+        String getSplitPassword()
+        {
+            if (split_password == null)
+            {
+                split_password = password.substring(start, end);
+            }
+            return split_password;
+        }
+
+        String getLowerPart()
+        {
+            if (lower_part == null)
+            {
+                lower_part = new String(lower, lower_offset, lower_length);
+            }
+            return lower_part;
+        }
+
+        char[] getReversed()
+        {
+            if (!reversed_built)
+            {
+                reverse(lower, lower_offset, lower_length, reversed);
+                reversed_built = true;
+            }
+            return reversed;
+        }
+
+        /**
+         * Looks up every combination of possible leet translations for the part, with all leet removed, as it is and
+         * reversed.
+         *
+         * @param dictionary the dictionary to look in.
+         * @return the values found, or an empty list if there were none.
+         */
+        List<DictionaryHit> findLeetHits(final Dictionary dictionary)
+        {
+            if (leet_count < 0)
+            {
+                leet_count = 0;
+                for (int i = 0; i < lower_length; i++)
+                {
+                    final char[] replacement = configuration.getLeetReplacements(lower[lower_offset + i]);
+                    if (replacement != null)
                     {
-                        if (!configuration.isDistanceCalc())
-                        {
-                            continue;
-                        }
-
-                        // Do not continue unless matching the whole password
-                        if (!(start == 0 && end == password.length()))
-                        {
-                            continue;
-                        }
-
-                        // Weed out false positives for very short values
-                        if (password.length() < 3)
-                        {
-                            continue;
-                        }
-
-
-                        // How far off the distance is allowed to be
-                        final int threshold = password.length() / 4;
-
-                        // Indexes to iterate over only a portion of the dictionary
-                        final int start_index;
-                        if (dictionary.getSortedDictionaryLengthLookup().containsKey(password.length() - threshold))
-                        {
-                            start_index = dictionary.getSortedDictionaryLengthLookup().get(password.length() - threshold);
-                        }
-                        else
-                        {
-                            start_index = dictionary.getSortedDictionary().size();
-                        }
-                        final int end_index;
-                        if (dictionary.getSortedDictionaryLengthLookup().containsKey(password.length() + threshold + 1))
-                        {
-                            end_index = dictionary.getSortedDictionaryLengthLookup().get(password.length() + threshold + 1);
-                        }
-                        else
-                        {
-                            end_index = dictionary.getSortedDictionary().size();
-                        }
-
-                        // Values for the matches found
-                        int dist_min = Integer.MAX_VALUE;
-                        String dist_val = null;
-                        Integer dist_rank = null;
-
-                        // Iterate over the subset of the dictionary (based on length) which could
-                        // possibly contain matches for the password
-                        for (final String key : dictionary.getSortedDictionary().subList(start_index, end_index))
-                        {
-                            int dist_curr = distance(password, key, threshold);
-                            if (dist_curr != -1)
-                            {
-                                final Integer dist_curr_rank = dictionary.getDictonary().get(key);
-                                // If true, set the vars which contain the lowest values found so far
-                                if (dist_curr <= dist_min && (dist_rank == null || dist_curr_rank <= dist_rank))
-                                {
-                                    dist_min = dist_curr;
-                                    dist_val = key;
-                                    dist_rank = dist_curr_rank;
-                                }
-                            }
-                        }
-
-                        // Add the match if one was found
-                        if (dist_rank != null)
-                        {
-                            matches.add(new DictionaryMatch(split_password, configuration, start, end - 1, dist_val, dist_rank, new ArrayList<Character[]>(), dictionary.isExclusion(), false, dictionary.getDictionaryName(), dist_min));
-                            continue;
-                        }
+                        leet_indexes[leet_count] = i;
+                        leet_replacements[leet_count] = replacement;
+                        leet_count++;
                     }
+                }
+            }
 
+            // Do not bother continuing if there is nothing to replace, or we're going to replace every single character
+            if (leet_count == 0 || leet_count == lower_length)
+            {
+                return Collections.emptyList();
+            }
+
+            System.arraycopy(lower, lower_offset, unleet, 0, lower_length);
+            translations = 0;
+            leet_hits = null;
+            replaceAtIndex(dictionary, 0);
+            final List<DictionaryHit> hits = leet_hits;
+            leet_hits = null;
+            if (hits == null)
+            {
+                return Collections.emptyList();
+            }
+            return hits;
+        }
+
+        /**
+         * Internal function to recursively build the un-leet possibilities, looking each up as it is built.
+         *
+         * @param dictionary the dictionary to look in.
+         * @param current    internal use for the function
+         */
+        private void replaceAtIndex(final Dictionary dictionary, final int current)
+        {
+            for (final char replacement : leet_replacements[current])
+            {
+                unleet[leet_indexes[current]] = replacement;
+                if (current == leet_count - 1)
+                {
+                    translations++;
+                    matchUnleet(dictionary);
+                }
+                else if (translations > 100)
+                {
+                    // Give up if we've already made 100 replacements
+                    return;
+                }
+                else
+                {
+                    replaceAtIndex(dictionary, current + 1);
                 }
             }
         }
-        // Return all the matches
-        return matches;
+
+        private void matchUnleet(final Dictionary dictionary)
+        {
+            final DictionaryHit unleet_hit = getHit(dictionary, unleet, 0, lower_length, false, true);
+            if (unleet_hit != null)
+            {
+                addHit(unleet_hit);
+                return;
+            }
+
+            // Only do reversed if it's different than unleet.
+            reverse(unleet, 0, lower_length, reversed_unleet);
+            final DictionaryHit reversed_unleet_hit = getHit(dictionary, reversed_unleet, 0, lower_length, true, true);
+            if (reversed_unleet_hit != null)
+            {
+                addHit(reversed_unleet_hit);
+            }
+        }
+
+        private void addHit(final DictionaryHit hit)
+        {
+            if (leet_hits == null)
+            {
+                leet_hits = new ArrayList<>();
+            }
+            leet_hits.add(hit);
+        }
     }
 }
@@ -0,0 +1,40 @@
+package me.gosimple.nbvcxz.matching;
+
+import me.gosimple.nbvcxz.matching.match.Match;
+import me.gosimple.nbvcxz.resources.Configuration;
+
+import java.util.List;
+
+/**
+ * Interface for matching methods which can find their matches a piece at a time, so the matches for the start of a
+ * password can be kept while the rest of it changes.
+ * <br><br>
+ * Every match returned by {@link #match(Configuration, String)} must be returned either by
+ * {@link #matchEndingAt(Configuration, String, int)} for the index it ends at, or by
+ * {@link #matchWholePassword(Configuration, String)}.
+ *
+ * @author Adam Brusselback.
+ */
+public interface IncrementalPasswordMatcher extends PasswordMatcher
+{
+    /**
+     * Creates a {@code List} of {@code Match} ending at an index of the password.  These must only depend on the
+     * characters they cover, so they stay the same when characters are added after them.
+     *
+     * @param configuration configuration for the matcher.
+     * @param password      password to match.
+     * @param end_index     the index the matches end at.
+     * @return a {@code List} of {@code Match}es that end at the index.
+     */
+    List<Match> matchEndingAt(final Configuration configuration, final String password, final int end_index);
+
+    /**
+     * Creates a {@code List} of {@code Match} which depend on the whole password, so they have to be found again
+     * whenever any part of it changes.
+     *
+     * @param configuration configuration for the matcher.
+     * @param password      password to match.
+     * @return a {@code List} of {@code Match}es that depend on the whole password.
+     */
+    List<Match> matchWholePassword(final Configuration configuration, final String password);
+}
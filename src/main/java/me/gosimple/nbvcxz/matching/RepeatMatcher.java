@@ -3,11 +3,10 @@ package me.gosimple.nbvcxz.matching;
 import me.gosimple.nbvcxz.matching.match.Match;
 import me.gosimple.nbvcxz.matching.match.RepeatMatch;
 import me.gosimple.nbvcxz.resources.Configuration;
+import me.gosimple.nbvcxz.resources.Deadline;
 
 import java.util.ArrayList;
-import java.util.HashSet;
 import java.util.List;
-import java.util.Set;
 import java.util.regex.Matcher;
 import java.util.regex.Pattern;
 
@@ -18,19 +17,40 @@ import java.util.regex.Pattern;
  */
 public final class RepeatMatcher implements PasswordMatcher
 {
+    private static final Pattern GREEDY = Pattern.compile("(.+)\\1+");
+    private static final Pattern LAZY = Pattern.compile("(.+?)\\1+");
+    private static final Pattern LAZY_ANCHORED = Pattern.compile("^(.+?)\\1+$");
+
+    /**
+     * @param characters the characters to count.
+     * @param limit      the count to stop at.
+     * @return the number of different characters, or the limit if there are more than that.
+     */
+    private static int countDistinct(final String characters, final int limit)
+    {
+        int distinct = 0;
+        for (int i = 0; i < characters.length() && distinct < limit; i++)
+        {
+            if (characters.lastIndexOf(characters.charAt(i), i - 1) < 0)
+            {
+                distinct++;
+            }
+        }
+        return distinct;
+    }
+
     public List<Match> match(final Configuration configuration, final String password)
     {
         List<Match> matches = new ArrayList<>();
 
-        Pattern greedy = Pattern.compile("(.+)\\1+");
-        Pattern lazy = Pattern.compile("(.+?)\\1+");
-        Pattern lazyAnchored = Pattern.compile("^(.+?)\\1+$");
         int lastIndex = 0;
-        Matcher greedyMatch = greedy.matcher(password);
-        Matcher lazyMatch = lazy.matcher(password);
+        Matcher greedyMatch = GREEDY.matcher(password);
+        Matcher lazyMatch = LAZY.matcher(password);
+        Deadline deadline = Deadline.current();
         while (lastIndex < password.length())
         {
-            if (!greedyMatch.find())
+            // Return the matches found so far once the deadline passes
+            if (deadline.isExpired() || !greedyMatch.find())
             {
                 break;
             }
@@ -40,7 +60,7 @@ public final class RepeatMatcher implements PasswordMatcher
             if (greedyMatch.group(0).length() > (lazyMatch.find() ? lazyMatch.group(0).length() : 0))
             {
                 match = greedyMatch;
-                Matcher matcher = lazyAnchored.matcher(match.group(0));
+                Matcher matcher = LAZY_ANCHORED.matcher(match.group(0));
                 baseToken = matcher.find() ? matcher.group(0) : match.group(0);
                 repeatCharacters = matcher.find() ? matcher.group(1) : match.group(1);
             }
@@ -53,12 +73,7 @@ public final class RepeatMatcher implements PasswordMatcher
             int startIndex = match.start(0);
             int endIndex = match.end(0) - 1;
 
-            Set<Character> character_set = new HashSet<>();
-            for (char character : repeatCharacters.toCharArray())
-            {
-                character_set.add(character);
-            }
-            if (character_set.size() <= 4)
+            if (countDistinct(repeatCharacters, 5) <= 4)
             {
                 matches.add(new RepeatMatch(baseToken, configuration, repeatCharacters, startIndex, endIndex));
             }
@@ -5,12 +5,10 @@ import me.gosimple.nbvcxz.matching.match.SpacialMatch;
 import me.gosimple.nbvcxz.resources.AdjacencyGraph;
 import me.gosimple.nbvcxz.resources.AdjacencyGraphUtil;
 import me.gosimple.nbvcxz.resources.Configuration;
+import me.gosimple.nbvcxz.resources.Deadline;
 
 import java.util.ArrayList;
-import java.util.HashMap;
 import java.util.List;
-import java.util.Map;
-import java.util.Set;
 
 /**
  * Look for every part of the password that is spacial pattern
@@ -24,54 +22,30 @@ public final class SpacialMatcher implements PasswordMatcher
     public List<Match> match(final Configuration configuration, final String password)
     {
         List<Match> matches = new ArrayList<>();
-        Map<Integer, Set<Character>> neighbors = new HashMap<>();
+        Deadline deadline = Deadline.current();
 
         for (AdjacencyGraph adjacencyGraph : configuration.getAdjacencyGraphs())
         {
-            // Get all the neighbors for each character
-            for (int i = 0; i < password.length(); i++)
+            // Return the matches found so far once the deadline passes
+            if (deadline.isExpired())
             {
-                neighbors.put(i, AdjacencyGraphUtil.getNeighbors(adjacencyGraph, password.charAt(i)));
+                break;
             }
 
-            // Build out matches
-            StringBuilder builder = new StringBuilder();
+            // Build out matches, from runs of characters which each neighbor the character after them
+            int run_start = 0;
             for (int i = 0; i < password.length(); i++)
             {
-                Character character = password.charAt(i);
-                int neighbors_i = i + 1;
-                if (neighbors_i < neighbors.size())
+                if (i + 1 < password.length() && adjacencyGraph.isNeighbor(password.charAt(i + 1), password.charAt(i)))
                 {
-                    boolean added = false;
-                    for (Character neighbor : neighbors.get(neighbors_i))
-                    {
-                        if (neighbor.equals(character))
-                        {
-                            builder.append(character);
-                            added = true;
-                            break;
-                        }
-                    }
-                    if (!added)
-                    {
-                        builder.append(character);
-                        if (builder.length() > 2)
-                        {
-                            matches.add(new SpacialMatch(builder.toString(), configuration, i - builder.length() + 1, i, adjacencyGraph, AdjacencyGraphUtil.getTurns(adjacencyGraph, builder.toString()), AdjacencyGraphUtil.getShifts(adjacencyGraph, builder.toString())));
-                        }
-                        builder.setLength(0);
-                    }
-
+                    continue;
                 }
-                else
+                if (i + 1 - run_start > 2)
                 {
-                    builder.append(character);
-                    if (builder.length() > 2)
-                    {
-                        matches.add(new SpacialMatch(builder.toString(), configuration, i - builder.length() + 1, i, adjacencyGraph, AdjacencyGraphUtil.getTurns(adjacencyGraph, builder.toString()), AdjacencyGraphUtil.getShifts(adjacencyGraph, builder.toString())));
-                    }
-                    builder.setLength(0);
+                    String token = password.substring(run_start, i + 1);
+                    matches.add(new SpacialMatch(token, configuration, run_start, i, adjacencyGraph, AdjacencyGraphUtil.getTurns(adjacencyGraph, token), AdjacencyGraphUtil.getShifts(adjacencyGraph, token)));
                 }
+                run_start = i + 1;
             }
         }
         return matches;
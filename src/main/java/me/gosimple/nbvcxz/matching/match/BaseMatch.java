@@ -87,6 +87,37 @@ public abstract class BaseMatch implements Match
         this.entropy = entropy;
     }
 
+    /**
+     * Creates a copy of a match, moved along the password by an offset.  Subclasses use this to implement
+     * {@link #withOffset(int)}, and copy their own fields.
+     *
+     * @param match  the match to copy.
+     * @param offset the number of characters to move the match by.
+     */
+    protected BaseMatch(final BaseMatch match, final int offset)
+    {
+        this.token = match.token;
+        this.configuration = match.configuration;
+        this.start_index = match.start_index + offset;
+        this.end_index = match.end_index + offset;
+        this.entropy = match.entropy;
+    }
+
+    /**
+     * Creates a copy of this match, moved along the password by an offset.  This is used when a password is matched
+     * one window at a time, so the indexes of the matches found in each window line up with the whole password.
+     * <br><br>
+     * Every match included with Nbvcxz can be moved.  Other subclasses can override this using
+     * {@link #BaseMatch(BaseMatch, int)}, or they are brute forced when the password is matched in windows.
+     *
+     * @param offset the number of characters to move the match by.
+     * @return a copy of this match with the offset added to its indexes, or null if this match can't be moved.
+     */
+    public BaseMatch withOffset(final int offset)
+    {
+        return null;
+    }
+
     @Override
     final public double calculateEntropy()
     {
@@ -21,9 +21,32 @@ public final class BruteForceMatch extends BaseMatch
         super.setEntropy(getEntropy(match));
     }
 
-    private double getEntropy(char character)
+    /**
+     * Creates a copy of a match, moved along the password by an offset.
+     *
+     * @param match  the match to copy.
+     * @param offset the number of characters to move the match by.
+     */
+    private BruteForceMatch(final BruteForceMatch match, final int offset)
+    {
+        super(match, offset);
+    }
+
+    @Override
+    public BruteForceMatch withOffset(final int offset)
+    {
+        return new BruteForceMatch(this, offset);
+    }
+
+    /**
+     * Gets the entropy of a brute force match of a character, without creating the match.
+     *
+     * @param character the character to get the entropy of.
+     * @return the same entropy as {@link #calculateEntropy()} for a {@code BruteForceMatch} of the character.
+     */
+    public static double getEntropy(char character)
     {
         int cardinality = BruteForceUtil.getBruteForceCardinality(character);
-        return Math.max(0, log2(cardinality * getToken().length()));
+        return Math.max(0, log2(cardinality));
     }
 }
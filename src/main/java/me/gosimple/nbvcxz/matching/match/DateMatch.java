@@ -40,6 +40,27 @@ public final class DateMatch extends BaseMatch
         super.setEntropy(getEntropy());
     }
 
+    /**
+     * Creates a copy of a match, moved along the password by an offset.
+     *
+     * @param match  the match to copy.
+     * @param offset the number of characters to move the match by.
+     */
+    private DateMatch(final DateMatch match, final int offset)
+    {
+        super(match, offset);
+        this.day = match.day;
+        this.month = match.month;
+        this.year = match.year;
+        this.separator = match.separator;
+    }
+
+    @Override
+    public DateMatch withOffset(final int offset)
+    {
+        return new DateMatch(this, offset);
+    }
+
     private double getEntropy()
     {
         double entropy;
@@ -50,6 +50,30 @@ public final class DictionaryMatch extends BaseMatch
         super.setEntropy(this.getEntropy());
     }
 
+    /**
+     * Creates a copy of a match, moved along the password by an offset.
+     *
+     * @param match  the match to copy.
+     * @param offset the number of characters to move the match by.
+     */
+    private DictionaryMatch(final DictionaryMatch match, final int offset)
+    {
+        super(match, offset);
+        this.dictionary_name = match.dictionary_name;
+        this.dictionary_value = match.dictionary_value;
+        this.rank = match.rank;
+        this.excluded = match.excluded;
+        this.leetSubstitution = match.leetSubstitution;
+        this.reversed = match.reversed;
+        this.distance = match.distance;
+    }
+
+    @Override
+    public DictionaryMatch withOffset(final int offset)
+    {
+        return new DictionaryMatch(this, offset);
+    }
+
     private double getEntropy()
     {
         if (excluded)
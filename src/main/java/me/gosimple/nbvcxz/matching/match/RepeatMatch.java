@@ -32,6 +32,25 @@ public final class RepeatMatch extends BaseMatch
         super.setEntropy(this.getEntropy());
     }
 
+    /**
+     * Creates a copy of a match, moved along the password by an offset.
+     *
+     * @param match  the match to copy.
+     * @param offset the number of characters to move the match by.
+     */
+    private RepeatMatch(final RepeatMatch match, final int offset)
+    {
+        super(match, offset);
+        this.repeatingCharacters = match.repeatingCharacters;
+        this.repeat = match.repeat;
+    }
+
+    @Override
+    public RepeatMatch withOffset(final int offset)
+    {
+        return new RepeatMatch(this, offset);
+    }
+
 
     private double getEntropy()
     {
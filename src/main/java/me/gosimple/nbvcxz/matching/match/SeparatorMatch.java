@@ -22,4 +22,21 @@ public final class SeparatorMatch extends BaseMatch
         super(match, configuration, start_index, end_index);
         super.setEntropy(LOG_10);
     }
+
+    /**
+     * Creates a copy of a match, moved along the password by an offset.
+     *
+     * @param match  the match to copy.
+     * @param offset the number of characters to move the match by.
+     */
+    private SeparatorMatch(final SeparatorMatch match, final int offset)
+    {
+        super(match, offset);
+    }
+
+    @Override
+    public SeparatorMatch withOffset(final int offset)
+    {
+        return new SeparatorMatch(this, offset);
+    }
 }
@@ -28,6 +28,24 @@ public final class SequenceMatch extends BaseMatch
         super.setEntropy(this.getEntropy());
     }
 
+    /**
+     * Creates a copy of a match, moved along the password by an offset.
+     *
+     * @param match  the match to copy.
+     * @param offset the number of characters to move the match by.
+     */
+    private SequenceMatch(final SequenceMatch match, final int offset)
+    {
+        super(match, offset);
+        this.firstCharacter = match.firstCharacter;
+    }
+
+    @Override
+    public SequenceMatch withOffset(final int offset)
+    {
+        return new SequenceMatch(this, offset);
+    }
+
 
     private double getEntropy()
     {
@@ -39,10 +39,30 @@ public final class SpacialMatch extends BaseMatch
         super.setEntropy(this.getEntropy());
     }
 
+    /**
+     * Creates a copy of a match, moved along the password by an offset.
+     *
+     * @param match  the match to copy.
+     * @param offset the number of characters to move the match by.
+     */
+    private SpacialMatch(final SpacialMatch match, final int offset)
+    {
+        super(match, offset);
+        this.adjacencyGraph = match.adjacencyGraph;
+        this.turns = match.turns;
+        this.shiftedCount = match.shiftedCount;
+    }
+
+    @Override
+    public SpacialMatch withOffset(final int offset)
+    {
+        return new SpacialMatch(this, offset);
+    }
+
     private double getEntropy()
     {
         // Size of the keyboard used
-        int size = adjacencyGraph.getKeyMap().size();
+        int size = adjacencyGraph.getKeyCount();
 
         // Average degree of the keyboard used
         double avgDegree = adjacencyGraph.getAverageDegree();
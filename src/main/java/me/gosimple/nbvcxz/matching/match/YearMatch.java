@@ -24,6 +24,23 @@ public final class YearMatch extends BaseMatch
         super.setEntropy(this.getEntropy());
     }
 
+    /**
+     * Creates a copy of a match, moved along the password by an offset.
+     *
+     * @param match  the match to copy.
+     * @param offset the number of characters to move the match by.
+     */
+    private YearMatch(final YearMatch match, final int offset)
+    {
+        super(match, offset);
+    }
+
+    @Override
+    public YearMatch withOffset(final int offset)
+    {
+        return new YearMatch(this, offset);
+    }
+
 
     private double getEntropy()
     {
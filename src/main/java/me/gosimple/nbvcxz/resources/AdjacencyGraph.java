@@ -1,6 +1,7 @@
 package me.gosimple.nbvcxz.resources;
 
 import java.util.HashMap;
+import java.util.Map;
 
 /**
  * @author Adam Brusselback.
@@ -9,8 +10,15 @@ public class AdjacencyGraph
 {
     private final HashMap<Character, String[]> keyMap;
     private final String name;
+    // For each key, indexed by character, the characters of the neighbor in each direction
+    private final char[][][] neighbors;
+    private final int keyCount;
+    private final double averageDegree;
 
     /**
+     * The key map is compiled into tables indexed by character when the graph is created, so changes made to the key
+     * map after that are not used for matching.
+     *
      * @param name   the name of the graph
      * @param keyMap the keyMap for the graph
      */
@@ -18,6 +26,28 @@ public class AdjacencyGraph
     {
         this.name = name;
         this.keyMap = keyMap;
+
+        int max_key = -1;
+        for (Character key : keyMap.keySet())
+        {
+            max_key = Math.max(max_key, key);
+        }
+        this.neighbors = new char[max_key + 1][][];
+        for (Map.Entry<Character, String[]> entry : keyMap.entrySet())
+        {
+            final String[] key_neighbors = entry.getValue();
+            final char[][] directions = new char[key_neighbors.length][];
+            for (int i = 0; i < key_neighbors.length; i++)
+            {
+                if (key_neighbors[i] != null)
+                {
+                    directions[i] = key_neighbors[i].toCharArray();
+                }
+            }
+            this.neighbors[entry.getKey()] = directions;
+        }
+        this.keyCount = keyMap.size();
+        this.averageDegree = AdjacencyGraphUtil.calcAverageDegree(keyMap);
     }
 
     /**
@@ -28,6 +58,55 @@ public class AdjacencyGraph
         return keyMap;
     }
 
+    /**
+     * Gets the neighbors of a key, as the characters of the neighbor in each direction.  The array returned must
+     * not be changed.
+     *
+     * @param key the key to get the neighbors of
+     * @return the characters of the neighbor in each direction, with null for directions without a neighbor, or null
+     * if the key isn't in this graph
+     */
+    public char[][] getNeighbors(final char key)
+    {
+        return key < neighbors.length ? neighbors[key] : null;
+    }
+
+    /**
+     * @param key       the key to look at the neighbors of
+     * @param character the character to look for
+     * @return true if the character is on a neighbor of the key, shifted or not
+     */
+    public boolean isNeighbor(final char key, final char character)
+    {
+        final char[][] directions = getNeighbors(key);
+        if (directions == null)
+        {
+            return false;
+        }
+        for (final char[] direction : directions)
+        {
+            if (direction == null)
+            {
+                continue;
+            }
+            for (final char neighbor : direction)
+            {
+                if (neighbor == character)
+                {
+                    return true;
+                }
+            }
+        }
+        return false;
+    }
+
+    /**
+     * @return the number of keys in this keyboard or keypad
+     */
+    public int getKeyCount()
+    {
+        return keyCount;
+    }
 
     /**
      * Calculates the average "degree" of a keyboard or keypad. On the qwerty
@@ -37,7 +116,7 @@ public class AdjacencyGraph
      */
     public double getAverageDegree()
     {
-        return AdjacencyGraphUtil.calcAverageDegree(keyMap);
+        return averageDegree;
     }
 
     /**
@@ -348,39 +348,34 @@ public class AdjacencyGraphUtil
     {
         int direction = 0;
         int turns = 1;
-        char[] parts = part.toCharArray();
 
-        for (int i1 = 0; i1 < parts.length; i1++)
+        for (int i1 = 0; i1 + 1 < part.length(); i1++)
         {
-            Character character = parts[i1];
-            if (i1 + 1 >= parts.length)
+            final char[][] neighbors = adjacencyGraph.getNeighbors(part.charAt(i1));
+            if (neighbors == null)
             {
                 continue;
             }
 
-            Character next_character = parts[i1 + 1];
-            if (adjacencyGraph.getKeyMap().containsKey(character))
+            final char next_character = part.charAt(i1 + 1);
+            for (int i2 = 0; i2 < neighbors.length; i2++)
             {
-                String[] tmp_neighbors = adjacencyGraph.getKeyMap().get(character);
-                for (int i2 = 0; i2 < tmp_neighbors.length; i2++)
+                if (neighbors[i2] == null)
                 {
-                    if (tmp_neighbors[i2] == null)
-                    {
-                        continue;
-                    }
-                    for (Character neighbor_char : tmp_neighbors[i2].toCharArray())
+                    continue;
+                }
+                for (final char neighbor_char : neighbors[i2])
+                {
+                    if (next_character == neighbor_char)
                     {
-                        if (next_character.equals(neighbor_char))
+                        if (direction == 0)
+                        {
+                            direction = i2;
+                        }
+                        else if (direction != i2)
                         {
-                            if (direction == 0)
-                            {
-                                direction = i2;
-                            }
-                            else if (direction != i2)
-                            {
-                                turns++;
-                                direction = i2;
-                            }
+                            turns++;
+                            direction = i2;
                         }
                     }
                 }
@@ -400,43 +395,35 @@ public class AdjacencyGraphUtil
     {
         int current_shift = -1;
         int shifts = 0;
-        char[] parts = part.toCharArray();
 
-        for (int i1 = 0; i1 < parts.length; i1++)
+        for (int i1 = 0; i1 + 1 < part.length(); i1++)
         {
-            Character character = parts[i1];
-            if (i1 + 1 >= parts.length)
+            final char[][] neighbors = adjacencyGraph.getNeighbors(part.charAt(i1));
+            if (neighbors == null)
             {
                 continue;
             }
 
-            Character next_character = parts[i1 + 1];
-
-            if (adjacencyGraph.getKeyMap().containsKey(character))
+            final char next_character = part.charAt(i1 + 1);
+            for (final char[] neighbor : neighbors)
             {
-                String[] tmp_neighbors = adjacencyGraph.getKeyMap().get(character);
-                for (final String tmp_neighbor : tmp_neighbors)
+                if (neighbor == null)
                 {
-                    if (tmp_neighbor == null)
-                    {
-                        continue;
-                    }
-                    int i = 0;
-                    for (Character neighbor_char : tmp_neighbor.toCharArray())
+                    continue;
+                }
+                for (int i = 0; i < neighbor.length; i++)
+                {
+                    if (next_character == neighbor[i])
                     {
-                        if (next_character.equals(neighbor_char))
+                        if (current_shift == -1)
+                        {
+                            current_shift = i;
+                        }
+                        else if (current_shift != i)
                         {
-                            if (current_shift == -1)
-                            {
-                                current_shift = i;
-                            }
-                            else if (current_shift != i)
-                            {
-                                shifts++;
-                                current_shift = i;
-                            }
+                            shifts++;
+                            current_shift = i;
                         }
-                        i++;
                     }
                 }
             }
@@ -0,0 +1,38 @@
+package me.gosimple.nbvcxz.resources;
+
+/**
+ * The algorithms which can be used to find the best combination of matches for a password.
+ *
+ * @author Adam Brusselback.
+ */
+public enum CombinationAlgorithm
+{
+    /**
+     * Recursively builds out every combination of non-intersecting matches and keeps the best one.
+     * <br>
+     * This is subject to the combination algorithm timeout, and will fall back to a faster, less accurate
+     * algorithm if the timeout is hit.
+     */
+    RECURSIVE,
+
+    /**
+     * Walks the password once by end position, keeping the best combination of matches for every prefix.
+     * <br>
+     * The combination with the lowest entropy once the rest of the password is filled in with brute force wins, and
+     * ties are broken by covering more of the password.  Every combination {@link #RECURSIVE} can return is compared,
+     * so this never estimates more entropy than {@link #RECURSIVE} does.
+     * This runs in time linear to the number of matches, so it never needs to fall back.
+     */
+    DYNAMIC,
+
+    /**
+     * Searches the same combinations as {@link #RECURSIVE}, but splits the seeds and their subtrees across a
+     * {@link java.util.concurrent.ForkJoinPool}, with every worker pruning against the best combination found so far.
+     * <br>
+     * The most complete combination of matches wins, and ties are broken by the lowest entropy, so the result does not
+     * depend on which worker finds it first.  {@link #RECURSIVE} instead keeps the combination with the lowest average
+     * entropy in the order it finds them, so the two can pick different combinations for the same password.  This is subject to the combination algorithm timeout and work budget
+     * like {@link #RECURSIVE}, and will fall back the same way if they are hit.
+     */
+    PARALLEL
+}
@@ -5,10 +5,17 @@ import me.gosimple.nbvcxz.matching.PasswordMatcher;
 import me.gosimple.nbvcxz.matching.SpacialMatcher;
 import me.gosimple.nbvcxz.matching.YearMatcher;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.ResourceBundle;
+import java.util.TreeMap;
 import java.util.regex.Pattern;
 
 /**
@@ -23,6 +30,9 @@ public class Configuration
     private final List<Dictionary> dictionaries;
     private final List<AdjacencyGraph> adjacencyGraphs;
     private final Map<Character, Character[]> leetTable;
+    // The leet table compiled into the replacements for each character, indexed by character
+    private final char[][] leetReplacements;
+    private final int maxDictionaryLength;
     private final Pattern yearPattern;
     private final Double minimumEntropy;
     private final Integer maxLength;
@@ -31,8 +41,23 @@ public class Configuration
     private final ResourceBundle mainResource;
     private final ResourceBundle feedbackResource;
     private final long combinationAlgorithmTimeout;
+    private final CombinationAlgorithm combinationAlgorithm;
+    private final boolean combinationAlgorithmPruning;
+    private final long combinationAlgorithmWorkBudget;
+    private final boolean splitLongPasswords;
+    private final DetailLevel detailLevel;
+    private final int dictionaryCacheSize;
+    private final Map<Dictionary, DictionaryCache> dictionaryCaches;
+    // The configuration this one was derived from, if it has the same matchers and tables and starts with the same
+    // dictionaries, so the digest of those can be built on instead of worked out again
+    private final Configuration structureBase;
+    private volatile String structureDigest;
+    private volatile String fingerprint;
 
     /**
+     * Creates a configuration with the defaults of {@link ConfigurationBuilder} for the settings which aren't
+     * passed in.
+     *
      * @param passwordMatchers            The list of {@link PasswordMatcher}s which will be used for matching
      * @param guessTypes                  Map of types of guesses, and associated guesses/sec
      * @param dictionaries                List of {@link Dictionary} to use for the {@link DictionaryMatcher}
@@ -45,22 +70,116 @@ public class Configuration
      * @param combinationAlgorithmTimeout Timeout for the findBestMatches algorithm
      */
     public Configuration(List<PasswordMatcher> passwordMatchers, Map<String, Long> guessTypes, List<Dictionary> dictionaries, List<AdjacencyGraph> adjacencyGraphs, Map<Character, Character[]> leetTable, Pattern yearPattern, Double minimumEntropy, Integer maxLength, Locale locale, boolean distanceCalc, long combinationAlgorithmTimeout)
+    {
+        this(null, passwordMatchers, guessTypes, dictionaries, adjacencyGraphs, leetTable, yearPattern, minimumEntropy, maxLength, locale, distanceCalc, combinationAlgorithmTimeout, ConfigurationBuilder.getDefaultCombinationAlgorithm(), ConfigurationBuilder.getDefaultCombinationAlgorithmPruning(), ConfigurationBuilder.getDefaultCombinationAlgorithmWorkBudget(), ConfigurationBuilder.getDefaultSplitLongPasswords(), ConfigurationBuilder.getDefaultDetailLevel(), ConfigurationBuilder.getDefaultDictionaryCacheSize());
+    }
+
+    /**
+     * @param passwordMatchers            The list of {@link PasswordMatcher}s which will be used for matching
+     * @param guessTypes                  Map of types of guesses, and associated guesses/sec
+     * @param dictionaries                List of {@link Dictionary} to use for the {@link DictionaryMatcher}
+     * @param adjacencyGraphs             List of adjacency graphs to be used by the {@link SpacialMatcher}
+     * @param leetTable                   Leet table for use with {@link DictionaryMatcher}
+     * @param yearPattern                 Regex {@link Pattern} for use with {@link YearMatcher}
+     * @param minimumEntropy              Minimum entropy value passwords should meet
+     * @param locale                      Locale for localized text and feedback
+     * @param distanceCalc                Enable or disable levenshtein distance calculation for dictionary matches
+     * @param combinationAlgorithmTimeout Timeout for the findBestMatches algorithm
+     * @param combinationAlgorithm        Algorithm used to find the best combination of matches
+     * @param combinationAlgorithmPruning Enable or disable pruning of combinations which can't win in the recursive algorithm
+     * @param combinationAlgorithmWorkBudget Number of combinations the recursive algorithm may explore instead of the timeout, 0 to use the timeout
+     * @param splitLongPasswords          Enable or disable splitting passwords longer than maxLength into windows instead of truncating them
+     * @param detailLevel                 How much detail is kept on each result
+     * @param dictionaryCacheSize         Number of password parts to remember the dictionary lookups for, per dictionary and generation, 0 to disable
+     */
+    public Configuration(List<PasswordMatcher> passwordMatchers, Map<String, Long> guessTypes, List<Dictionary> dictionaries, List<AdjacencyGraph> adjacencyGraphs, Map<Character, Character[]> leetTable, Pattern yearPattern, Double minimumEntropy, Integer maxLength, Locale locale, boolean distanceCalc, long combinationAlgorithmTimeout, CombinationAlgorithm combinationAlgorithm, boolean combinationAlgorithmPruning, long combinationAlgorithmWorkBudget, boolean splitLongPasswords, DetailLevel detailLevel, int dictionaryCacheSize)
+    {
+        this(null, passwordMatchers, guessTypes, dictionaries, adjacencyGraphs, leetTable, yearPattern, minimumEntropy, maxLength, locale, distanceCalc, combinationAlgorithmTimeout, combinationAlgorithm, combinationAlgorithmPruning, combinationAlgorithmWorkBudget, splitLongPasswords, detailLevel, dictionaryCacheSize);
+    }
+
+    /**
+     * Creates a configuration which shares whatever it can with a base configuration.  The compiled leet table,
+     * resource bundles and dictionary caches of the base are used again where the settings they come from are the
+     * same, instead of being built again.  The other parameters are the same as for the public constructor.
+     *
+     * @param base the configuration to share with, or null to build everything
+     */
+    Configuration(Configuration base, List<PasswordMatcher> passwordMatchers, Map<String, Long> guessTypes, List<Dictionary> dictionaries, List<AdjacencyGraph> adjacencyGraphs, Map<Character, Character[]> leetTable, Pattern yearPattern, Double minimumEntropy, Integer maxLength, Locale locale, boolean distanceCalc, long combinationAlgorithmTimeout, CombinationAlgorithm combinationAlgorithm, boolean combinationAlgorithmPruning, long combinationAlgorithmWorkBudget, boolean splitLongPasswords, DetailLevel detailLevel, int dictionaryCacheSize)
     {
         this.passwordMatchers = passwordMatchers;
         this.guessTypes = guessTypes;
         this.dictionaries = dictionaries;
         this.adjacencyGraphs = adjacencyGraphs;
         this.leetTable = leetTable;
+        final boolean same_leet_table = base != null && base.leetTable == leetTable;
+        this.leetReplacements = same_leet_table ? base.leetReplacements : compileLeetTable(leetTable);
+        int max_dictionary_length = 0;
+        for (Dictionary dictionary : dictionaries)
+        {
+            max_dictionary_length = Math.max(max_dictionary_length, dictionary.getMaxLength());
+        }
+        this.maxDictionaryLength = max_dictionary_length;
         this.yearPattern = yearPattern;
         this.minimumEntropy = minimumEntropy;
         this.maxLength = maxLength;
         this.locale = locale;
         this.distanceCalc = distanceCalc;
-        ResourceBundle.Control noFallbackControl = ResourceBundle.Control.getNoFallbackControl(
-                ResourceBundle.Control.FORMAT_PROPERTIES);
-        this.mainResource = ResourceBundle.getBundle("main", locale, noFallbackControl);
-        this.feedbackResource = ResourceBundle.getBundle("feedback", locale, noFallbackControl);
+        final boolean same_locale = base != null && base.locale.equals(locale);
+        this.mainResource = same_locale ? base.mainResource : ResourceBundleCache.getMainResource(locale);
+        this.feedbackResource = same_locale ? base.feedbackResource : ResourceBundleCache.getFeedbackResource(locale);
         this.combinationAlgorithmTimeout = combinationAlgorithmTimeout;
+        this.combinationAlgorithm = combinationAlgorithm;
+        this.combinationAlgorithmPruning = combinationAlgorithmPruning;
+        this.combinationAlgorithmWorkBudget = combinationAlgorithmWorkBudget;
+        this.splitLongPasswords = splitLongPasswords;
+        this.detailLevel = detailLevel;
+        this.dictionaryCacheSize = dictionaryCacheSize;
+        this.dictionaryCaches = new IdentityHashMap<>();
+        // The cached lookups depend on the leet table, so they can only be shared if it is the same
+        final boolean share_caches = same_leet_table && base.dictionaryCacheSize == dictionaryCacheSize;
+        for (Dictionary dictionary : dictionaries)
+        {
+            final DictionaryCache cache = share_caches ? base.dictionaryCaches.get(dictionary) : null;
+            this.dictionaryCaches.put(dictionary, cache != null ? cache : new DictionaryCache(dictionaryCacheSize));
+        }
+        this.structureBase = base != null && base.passwordMatchers == passwordMatchers && base.adjacencyGraphs == adjacencyGraphs && same_leet_table && startsWith(dictionaries, base.dictionaries) ? base : null;
+    }
+
+    private static boolean startsWith(final List<Dictionary> dictionaries, final List<Dictionary> prefix)
+    {
+        if (dictionaries.size() < prefix.size())
+        {
+            return false;
+        }
+        for (int i = 0; i < prefix.size(); i++)
+        {
+            if (dictionaries.get(i) != prefix.get(i))
+            {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static char[][] compileLeetTable(final Map<Character, Character[]> leetTable)
+    {
+        int max_key = -1;
+        for (Character key : leetTable.keySet())
+        {
+            max_key = Math.max(max_key, key);
+        }
+        final char[][] replacements = new char[max_key + 1][];
+        for (Map.Entry<Character, Character[]> entry : leetTable.entrySet())
+        {
+            final Character[] values = entry.getValue();
+            final char[] chars = new char[values.length];
+            for (int i = 0; i < values.length; i++)
+            {
+                chars[i] = values[i];
+            }
+            replacements[entry.getKey()] = chars;
+        }
+        return replacements;
     }
 
     /**
@@ -103,6 +222,26 @@ public class Configuration
         return leetTable;
     }
 
+    /**
+     * Gets the replacements in the leet table for a character, without looking it up in the map.  The array returned
+     * must not be changed.
+     *
+     * @param character the character to get the replacements for
+     * @return the characters the character can be replaced with, or null if it isn't in the leet table
+     */
+    public char[] getLeetReplacements(final char character)
+    {
+        return character < leetReplacements.length ? leetReplacements[character] : null;
+    }
+
+    /**
+     * @return the length of the longest value in any of the dictionaries
+     */
+    public int getMaxDictionaryLength()
+    {
+        return maxDictionaryLength;
+    }
+
     /**
      * @return Regex {@link Pattern} for use with {@link YearMatcher}
      */
@@ -150,6 +289,229 @@ public class Configuration
         return combinationAlgorithmTimeout;
     }
 
+    /**
+     * @return Return the algorithm used to find the best combination of matches
+     */
+    public CombinationAlgorithm getCombinationAlgorithm()
+    {
+        return combinationAlgorithm;
+    }
+
+    /**
+     * @return If pruning is enabled for the recursive combination algorithm or not
+     */
+    public boolean isCombinationAlgorithmPruning()
+    {
+        return combinationAlgorithmPruning;
+    }
+
+    /**
+     * @return Return the number of combinations the recursive algorithm may explore, or 0 if it is limited by the timeout
+     */
+    public long getCombinationAlgorithmWorkBudget()
+    {
+        return combinationAlgorithmWorkBudget;
+    }
+
+    /**
+     * @return If passwords longer than maxLength are split into windows instead of truncated or not
+     */
+    public boolean isSplitLongPasswords()
+    {
+        return splitLongPasswords;
+    }
+
+    /**
+     * @return Number of password parts to remember the dictionary lookups for, per dictionary and generation
+     */
+    public int getDictionaryCacheSize()
+    {
+        return dictionaryCacheSize;
+    }
+
+    /**
+     * Gets the cache of lookups in a dictionary, which is shared by every estimate using this configuration.
+     *
+     * @param dictionary one of the dictionaries of this configuration
+     * @return the cache of lookups in the dictionary, or null if it isn't one of the dictionaries of this configuration
+     */
+    public DictionaryCache getDictionaryCache(final Dictionary dictionary)
+    {
+        return dictionaryCaches.get(dictionary);
+    }
+
+    /**
+     * Creates a configuration with the same settings as this one, and the dictionaries passed in added to the end of
+     * the dictionaries of this one, such as an exclusion dictionary with the name and email of a user.
+     * <br><br>
+     * Everything else is shared with this configuration rather than being built again, including the cached
+     * dictionary lookups, so this is cheap enough to do for each estimate.
+     *
+     * @param additionalDictionaries the dictionaries to add
+     * @return a new configuration with the dictionaries added
+     */
+    public Configuration withAdditionalDictionaries(final List<Dictionary> additionalDictionaries)
+    {
+        final List<Dictionary> combined = new ArrayList<>(dictionaries.size() + additionalDictionaries.size());
+        combined.addAll(dictionaries);
+        combined.addAll(additionalDictionaries);
+        return new Configuration(this, passwordMatchers, guessTypes, combined, adjacencyGraphs, leetTable, yearPattern, minimumEntropy, maxLength, locale, distanceCalc, combinationAlgorithmTimeout, combinationAlgorithm, combinationAlgorithmPruning, combinationAlgorithmWorkBudget, splitLongPasswords, detailLevel, dictionaryCacheSize);
+    }
+
+    /**
+     * Creates a configuration with the settings which were set on the builder passed in, and the settings of this
+     * configuration for everything else.  Use a new builder with only the settings to change, as settings left unset
+     * are taken from this configuration rather than given their defaults.
+     * <br><br>
+     * Everything which isn't changed is shared with this configuration rather than being built again, so this is
+     * cheap enough to do for each estimate.
+     *
+     * @param overrides a builder with the settings to change
+     * @return a new configuration with the settings changed
+     */
+    public Configuration withOverrides(final ConfigurationBuilder overrides)
+    {
+        return overrides.createConfiguration(this);
+    }
+
+    /**
+     * Gets a fingerprint of every setting which can change the result of an estimate, so results estimated with
+     * one configuration can be told apart from those estimated with another.  Two configurations with the same
+     * settings have the same fingerprint, even if they are different objects.  The detail level isn't included, as
+     * it only changes how much of a result is kept.
+     * <br><br>
+     * Password matchers are only told apart by class name, so two instances of the same matcher class with different
+     * settings of their own have the same fingerprint.
+     * <br><br>
+     * This is worked out the first time it is needed, so changes made after that to the dictionaries or tables
+     * passed in are not reflected.  A configuration derived from another one, with the same matchers and tables,
+     * builds on the digest of the other one, so only the settings and any dictionaries it adds are hashed again.
+     *
+     * @return a hex encoded SHA-256 hash of the settings
+     */
+    public String getFingerprint()
+    {
+        String result = fingerprint;
+        if (result == null)
+        {
+            result = calculateFingerprint();
+            fingerprint = result;
+        }
+        return result;
+    }
+
+    private String calculateFingerprint()
+    {
+        final StringBuilder settings = new StringBuilder();
+        settings.append("structure:").append(getStructureDigest()).append('\n');
+        settings.append("yearPattern:").append(yearPattern.pattern()).append(':').append(yearPattern.flags()).append('\n');
+        settings.append("minimumEntropy:").append(minimumEntropy).append('\n');
+        settings.append("maxLength:").append(maxLength).append('\n');
+        settings.append("locale:").append(locale).append('\n');
+        settings.append("distanceCalc:").append(distanceCalc).append('\n');
+        settings.append("combinationAlgorithmTimeout:").append(combinationAlgorithmTimeout).append('\n');
+        settings.append("combinationAlgorithm:").append(combinationAlgorithm).append('\n');
+        settings.append("combinationAlgorithmPruning:").append(combinationAlgorithmPruning).append('\n');
+        settings.append("combinationAlgorithmWorkBudget:").append(combinationAlgorithmWorkBudget).append('\n');
+        settings.append("splitLongPasswords:").append(splitLongPasswords).append('\n');
+        return sha256Hex(settings.toString());
+    }
+
+    /**
+     * Gets a digest of the matchers, tables and dictionaries.  Each dictionary is chained onto the digest of the ones
+     * before it, so a configuration derived from another by adding dictionaries only has to add those to the digest
+     * of the other, and still gets the same digest as one built with all the dictionaries from the start.
+     *
+     * @return a hex encoded SHA-256 hash of the matchers, tables and dictionaries
+     */
+    private String getStructureDigest()
+    {
+        String result = structureDigest;
+        if (result == null)
+        {
+            int first_dictionary = 0;
+            if (structureBase != null)
+            {
+                result = structureBase.getStructureDigest();
+                first_dictionary = structureBase.dictionaries.size();
+            }
+            else
+            {
+                result = calculateTablesDigest();
+            }
+            for (int i = first_dictionary; i < dictionaries.size(); i++)
+            {
+                final Dictionary dictionary = dictionaries.get(i);
+                result = sha256Hex(result + "\ndictionary:" + dictionary.getDictionaryName()
+                        + ':' + dictionary.isExclusion()
+                        + ':' + dictionary.getDigest() + '\n');
+            }
+            structureDigest = result;
+        }
+        return result;
+    }
+
+    private String calculateTablesDigest()
+    {
+        final StringBuilder settings = new StringBuilder();
+        for (PasswordMatcher passwordMatcher : passwordMatchers)
+        {
+            settings.append("matcher:").append(passwordMatcher.getClass().getName()).append('\n');
+        }
+        for (AdjacencyGraph adjacencyGraph : adjacencyGraphs)
+        {
+            settings.append("adjacencyGraph:").append(adjacencyGraph.getName());
+            for (Map.Entry<Character, String[]> entry : new TreeMap<>(adjacencyGraph.getKeyMap()).entrySet())
+            {
+                settings.append(':').append(entry.getKey()).append(Arrays.toString(entry.getValue()));
+            }
+            settings.append('\n');
+        }
+        settings.append("leetTable:");
+        for (Map.Entry<Character, Character[]> entry : new TreeMap<>(leetTable).entrySet())
+        {
+            settings.append(':').append(entry.getKey()).append(Arrays.toString(entry.getValue()));
+        }
+        settings.append('\n');
+        return sha256Hex(settings.toString());
+    }
+
+    private static String sha256Hex(final String value)
+    {
+        return toHex(newSha256().digest(value.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    static MessageDigest newSha256()
+    {
+        try
+        {
+            return MessageDigest.getInstance("SHA-256");
+        }
+        catch (NoSuchAlgorithmException e)
+        {
+            // Every Java platform is required to support SHA-256
+            throw new IllegalStateException("SHA-256 is not available.", e);
+        }
+    }
+
+    static String toHex(final byte[] hash)
+    {
+        final StringBuilder hex = new StringBuilder();
+        for (byte b : hash)
+        {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+
+    /**
+     * @return How much detail is kept on each result
+     */
+    public DetailLevel getDetailLevel()
+    {
+        return detailLevel;
+    }
+
     /**
      * @return Return the resource bundle which contains the text for everything but feedback
      */
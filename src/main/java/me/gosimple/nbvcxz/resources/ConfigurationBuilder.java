@@ -91,6 +91,12 @@ public class ConfigurationBuilder
     private Locale locale;
     private Boolean distanceCalc;
     private Long combinationAlgorithmTimeout;
+    private CombinationAlgorithm combinationAlgorithm;
+    private Boolean combinationAlgorithmPruning;
+    private Long combinationAlgorithmWorkBudget;
+    private Boolean splitLongPasswords;
+    private DetailLevel detailLevel;
+    private Integer dictionaryCacheSize;
     private Long crackingHardwareCost;
 
     /**
@@ -228,6 +234,54 @@ public class ConfigurationBuilder
         return 500L;
     }
 
+    /**
+     * @return The default combination algorithm is {@link CombinationAlgorithm#RECURSIVE}.
+     */
+    public static CombinationAlgorithm getDefaultCombinationAlgorithm()
+    {
+        return CombinationAlgorithm.RECURSIVE;
+    }
+
+    /**
+     * @return the default is false
+     */
+    public static Boolean getDefaultCombinationAlgorithmPruning()
+    {
+        return false;
+    }
+
+    /**
+     * @return The default value for combination algorithm work budget is 0, so the timeout is used.
+     */
+    public static long getDefaultCombinationAlgorithmWorkBudget()
+    {
+        return 0L;
+    }
+
+    /**
+     * @return the default is false
+     */
+    public static Boolean getDefaultSplitLongPasswords()
+    {
+        return false;
+    }
+
+    /**
+     * @return The default detail level is {@link DetailLevel#FULL}.
+     */
+    public static DetailLevel getDefaultDetailLevel()
+    {
+        return DetailLevel.FULL;
+    }
+
+    /**
+     * @return The default dictionary cache size is 0, so the cache is disabled.
+     */
+    public static int getDefaultDictionaryCacheSize()
+    {
+        return 0;
+    }
+
     /**
      * @return The default value for hardware cost is 20000 usd.
      */
@@ -405,6 +459,107 @@ public class ConfigurationBuilder
         return this;
     }
 
+    /**
+     * The algorithm used to find the best combination of matches for the password.
+     * <p>
+     * {@link CombinationAlgorithm#RECURSIVE} tries every combination and is bounded by the combination algorithm timeout.
+     * {@link CombinationAlgorithm#DYNAMIC} finds the lowest entropy combination in linear time, never estimates more
+     * entropy than {@link CombinationAlgorithm#RECURSIVE}, and never needs to fall back to the less accurate algorithm.
+     *
+     * @param combinationAlgorithm The algorithm to use
+     * @return Builder
+     */
+    public ConfigurationBuilder setCombinationAlgorithm(final CombinationAlgorithm combinationAlgorithm)
+    {
+        this.combinationAlgorithm = combinationAlgorithm;
+        return this;
+    }
+
+    /**
+     * Pruning for the {@link CombinationAlgorithm#RECURSIVE} algorithm.  While building out combinations, the entropy
+     * so far is combined with a lower bound for the rest of the password, and any branch which can not beat the best
+     * combination found so far is skipped.
+     * <p>
+     * The bound never skips a combination which would have been picked, so the result is exactly the same as without
+     * pruning, but long passwords are much more likely to finish before the timeout.
+     *
+     * @param combinationAlgorithmPruning true to enable pruning
+     * @return Builder
+     */
+    public ConfigurationBuilder setCombinationAlgorithmPruning(final Boolean combinationAlgorithmPruning)
+    {
+        this.combinationAlgorithmPruning = combinationAlgorithmPruning;
+        return this;
+    }
+
+    /**
+     * Work budget for the {@link CombinationAlgorithm#RECURSIVE} algorithm, which replaces the timeout when set.
+     * Each combination explored counts against the budget, and once it is used up we fall back to the faster, less
+     * accurate algorithm, the same as when the timeout is hit.
+     * <p>
+     * The timeout depends on how fast the machine is and how busy it is, so the same password can get a different
+     * result from one estimate to the next.  A budget gives the same result every time, on every machine.
+     * <p>
+     * To use the timeout instead, set to 0.
+     *
+     * @param combinationAlgorithmWorkBudget The number of combinations which can be explored
+     * @return Builder
+     */
+    public ConfigurationBuilder setCombinationAlgorithmWorkBudget(final Long combinationAlgorithmWorkBudget)
+    {
+        this.combinationAlgorithmWorkBudget = combinationAlgorithmWorkBudget;
+        return this;
+    }
+
+    /**
+     * Instead of truncating passwords longer than maxLength, split them into windows of at most maxLength, and
+     * estimate the windows in parallel.  The entropy of the password is then the entropy of all the windows added up.
+     * <p>
+     * Windows are cut right after a separator such as a space or dash where possible, so words are rarely split
+     * between two windows.  Matching is quadratic in the length of the password, so keeping each window bounded keeps
+     * the cost linear in the length of the password.
+     * <p>
+     * Only enable this if the whole password is used, rather than being truncated by the hashing algorithm.
+     *
+     * @param splitLongPasswords true to split long passwords into windows
+     * @return Builder
+     */
+    public ConfigurationBuilder setSplitLongPasswords(final Boolean splitLongPasswords)
+    {
+        this.splitLongPasswords = splitLongPasswords;
+        return this;
+    }
+
+    /**
+     * Sets how much detail is kept on each result.  Use {@link DetailLevel#SCORE} if only the entropy or score is
+     * needed, or {@link DetailLevel#MATCHES} if the matches are needed but feedback isn't.
+     *
+     * @param detailLevel the detail level
+     * @return Builder
+     */
+    public ConfigurationBuilder setDetailLevel(final DetailLevel detailLevel)
+    {
+        this.detailLevel = detailLevel;
+        return this;
+    }
+
+    /**
+     * Sets how many parts of passwords the lookups in each dictionary are remembered for, so parts common to many
+     * passwords are only looked up once.  The cache is shared by every estimate using the configuration, and holds
+     * at most twice this many parts for each dictionary.  Only parts found in a dictionary are remembered.
+     * <p>
+     * The parts are kept in memory as plain text, so this is disabled by default, to keep no part of any password
+     * after its estimate is done.
+     *
+     * @param dictionaryCacheSize The number of parts to remember
+     * @return Builder
+     */
+    public ConfigurationBuilder setDictionaryCacheSize(final Integer dictionaryCacheSize)
+    {
+        this.dictionaryCacheSize = dictionaryCacheSize;
+        return this;
+    }
+
     /**
      * Sets the cost of cracking hardware to scale the guesses / second for the default guess types.
      * <br>
@@ -473,8 +628,64 @@ public class ConfigurationBuilder
         {
             combinationAlgorithmTimeout = getDefaultCombinationAlgorithmTimeout();
         }
-        return new Configuration(passwordMatchers, guessTypes, dictionaries, adjacencyGraphs, leetTable, yearPattern, minimumEntropy, maxLength, locale, distanceCalc, combinationAlgorithmTimeout);
+        if (combinationAlgorithm == null)
+        {
+            combinationAlgorithm = getDefaultCombinationAlgorithm();
+        }
+        if (combinationAlgorithmPruning == null)
+        {
+            combinationAlgorithmPruning = getDefaultCombinationAlgorithmPruning();
+        }
+        if (combinationAlgorithmWorkBudget == null)
+        {
+            combinationAlgorithmWorkBudget = getDefaultCombinationAlgorithmWorkBudget();
+        }
+        if (splitLongPasswords == null)
+        {
+            splitLongPasswords = getDefaultSplitLongPasswords();
+        }
+        if (detailLevel == null)
+        {
+            detailLevel = getDefaultDetailLevel();
+        }
+        if (dictionaryCacheSize == null)
+        {
+            dictionaryCacheSize = getDefaultDictionaryCacheSize();
+        }
+        return new Configuration(passwordMatchers, guessTypes, dictionaries, adjacencyGraphs, leetTable, yearPattern, minimumEntropy, maxLength, locale, distanceCalc, combinationAlgorithmTimeout, combinationAlgorithm, combinationAlgorithmPruning, combinationAlgorithmWorkBudget, splitLongPasswords, detailLevel, dictionaryCacheSize);
     }
 
-
+    /**
+     * Creates a configuration with the settings set on this builder, and the settings of the base configuration
+     * for everything else, sharing whatever it can with the base.
+     *
+     * @param base the configuration to take unset settings from
+     * @return the configuration
+     */
+    Configuration createConfiguration(final Configuration base)
+    {
+        Map<String, Long> overlay_guess_types = guessTypes;
+        if (overlay_guess_types == null)
+        {
+            overlay_guess_types = crackingHardwareCost != null ? getDefaultGuessTypes(crackingHardwareCost) : base.getGuessTypes();
+        }
+        return new Configuration(base,
+                passwordMatchers != null ? passwordMatchers : base.getPasswordMatchers(),
+                overlay_guess_types,
+                dictionaries != null ? dictionaries : base.getDictionaries(),
+                adjacencyGraphs != null ? adjacencyGraphs : base.getAdjacencyGraphs(),
+                leetTable != null ? leetTable : base.getLeetTable(),
+                yearPattern != null ? yearPattern : base.getYearPattern(),
+                minimumEntropy != null ? minimumEntropy : base.getMinimumEntropy(),
+                maxLength != null ? maxLength : base.getMaxLength(),
+                locale != null ? locale : base.getLocale(),
+                distanceCalc != null ? distanceCalc : base.isDistanceCalc(),
+                combinationAlgorithmTimeout != null ? combinationAlgorithmTimeout : base.getCombinationAlgorithmTimeout(),
+                combinationAlgorithm != null ? combinationAlgorithm : base.getCombinationAlgorithm(),
+                combinationAlgorithmPruning != null ? combinationAlgorithmPruning : base.isCombinationAlgorithmPruning(),
+                combinationAlgorithmWorkBudget != null ? combinationAlgorithmWorkBudget : base.getCombinationAlgorithmWorkBudget(),
+                splitLongPasswords != null ? splitLongPasswords : base.isSplitLongPasswords(),
+                detailLevel != null ? detailLevel : base.getDetailLevel(),
+                dictionaryCacheSize != null ? dictionaryCacheSize : base.getDictionaryCacheSize());
+    }
 }
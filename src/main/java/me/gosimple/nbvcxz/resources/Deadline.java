@@ -0,0 +1,126 @@
+package me.gosimple.nbvcxz.resources;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A point in time an estimate should be finished by, which can also be cancelled early.
+ * <br><br>
+ * While an estimate is running, its deadline is available to the thread running it through {@link #current()}.
+ * Matchers and the combination search check it as they go, and stop with what they have found so far once it has
+ * passed.  Time is measured with {@link System#nanoTime()}, so changes to the system clock have no effect on it.
+ *
+ * @author Adam Brusselback.
+ */
+public final class Deadline
+{
+    private static final Deadline NEVER = new Deadline(false, 0);
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final boolean timed;
+    private final long stop_time;
+    private volatile boolean cancelled;
+
+    private Deadline(final boolean timed, final long stop_time)
+    {
+        this.timed = timed;
+        this.stop_time = stop_time;
+        this.cancelled = false;
+    }
+
+    /**
+     * @param timeout the amount of time from now until the deadline
+     * @param unit    the unit of the timeout
+     * @return a deadline which passes after the timeout, or when it is cancelled
+     */
+    public static Deadline after(final long timeout, final TimeUnit unit)
+    {
+        return new Deadline(true, System.nanoTime() + unit.toNanos(timeout));
+    }
+
+    /**
+     * @return a deadline without a time limit, which only passes when it is cancelled
+     */
+    public static Deadline none()
+    {
+        return new Deadline(false, 0);
+    }
+
+    /**
+     * Gets the deadline of the estimate running on this thread.
+     *
+     * @return the deadline of the current estimate, or a deadline which never passes if there is none
+     */
+    public static Deadline current()
+    {
+        final Deadline deadline = CURRENT.get();
+        return deadline == null ? NEVER : deadline;
+    }
+
+    /**
+     * Sets the deadline of the estimate running on this thread.  The previous deadline should be set again when the
+     * estimate is done.
+     *
+     * @param deadline the deadline of the estimate, or null if there is none
+     * @return the deadline which was set before, or null if there was none
+     */
+    public static Deadline setCurrent(final Deadline deadline)
+    {
+        final Deadline previous = CURRENT.get();
+        if (deadline == null)
+        {
+            CURRENT.remove();
+        }
+        else
+        {
+            CURRENT.set(deadline);
+        }
+        return previous;
+    }
+
+    /**
+     * Cancels the deadline, so it is passed from now on.  This can be called from any thread.
+     *
+     * @throws IllegalStateException if this is the deadline returned by {@link #current()} when there is none
+     */
+    public void cancel()
+    {
+        if (this == NEVER)
+        {
+            throw new IllegalStateException("There is no deadline to cancel.");
+        }
+        cancelled = true;
+    }
+
+    /**
+     * @return true if the deadline was cancelled
+     */
+    public boolean isCancelled()
+    {
+        return cancelled;
+    }
+
+    /**
+     * @return true if the deadline was cancelled, or the time limit has passed
+     */
+    public boolean isExpired()
+    {
+        return cancelled || (timed && System.nanoTime() - stop_time >= 0);
+    }
+
+    /**
+     * @return the nanoseconds left until the deadline, 0 if it has passed, or {@link Long#MAX_VALUE} if there is no
+     * time limit
+     */
+    public long getRemainingNanos()
+    {
+        if (cancelled)
+        {
+            return 0;
+        }
+        if (!timed)
+        {
+            return Long.MAX_VALUE;
+        }
+        return Math.max(0, stop_time - System.nanoTime());
+    }
+}
@@ -0,0 +1,30 @@
+package me.gosimple.nbvcxz.resources;
+
+/**
+ * How much detail an estimate keeps on its {@link me.gosimple.nbvcxz.scoring.Result}, so callers only pay for what
+ * they use.
+ *
+ * @author Adam Brusselback.
+ */
+public enum DetailLevel
+{
+    /**
+     * Only the entropy, and what is worked out from it such as the score and guesses, are kept.
+     * <br>
+     * The matches are dropped as soon as their entropy is added up, so a result holds no tokens, and they are not
+     * checked against the password.  Asking the result for its matches returns an empty list, and asking it for
+     * feedback throws an {@link IllegalStateException}.
+     */
+    SCORE,
+
+    /**
+     * The entropy and the matches are kept, but feedback is not available.  Asking the result for feedback throws an
+     * {@link IllegalStateException}.
+     */
+    MATCHES,
+
+    /**
+     * Everything is kept, including feedback.
+     */
+    FULL
+}
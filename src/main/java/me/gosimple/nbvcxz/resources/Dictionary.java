@@ -1,5 +1,7 @@
 package me.gosimple.nbvcxz.resources;
 
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
 import java.util.*;
 
 /**
@@ -18,10 +20,19 @@ public class Dictionary
     private final Map<Integer, Integer> sorted_dictionary_length_lookup;
     private final boolean exclusion;
     private final int max_length;
+    // Open addressing table of the words and their ranks, so parts of a password can be looked up without copying
+    // them into a String, and without going back to the map
+    private final String[] word_table;
+    private final int[] word_hashes;
+    private final Integer[] word_ranks;
+    private volatile String digest;
 
 
     /**
      * Object used for dictionary matching.
+     * <br><br>
+     * The words are compiled into lookup tables when the dictionary is created, so changes made to the map after that
+     * are not used for matching.
      *
      * @param dictionary_name unique name of dictionary.
      * @param dictonary       {@code Map} with the word and it's rank.  The key must be lowercase for the matching to work properly.
@@ -73,6 +84,92 @@ public class Dictionary
             i_max_length = i;
         }
         max_length = i_max_length;
+
+        int table_size = 2;
+        while (table_size < sorted_dictionary.size() * 2)
+        {
+            table_size <<= 1;
+        }
+        this.word_table = new String[table_size];
+        this.word_hashes = new int[table_size];
+        this.word_ranks = new Integer[table_size];
+        for (String word : sorted_dictionary)
+        {
+            final int hash = word.hashCode();
+            int slot = spread(hash) & (table_size - 1);
+            while (word_table[slot] != null)
+            {
+                slot = (slot + 1) & (table_size - 1);
+            }
+            word_table[slot] = word;
+            word_hashes[slot] = hash;
+            word_ranks[slot] = this.dictonary.get(word);
+        }
+    }
+
+    private static int spread(final int hash)
+    {
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Looks up a range of characters in this dictionary, without copying them into a {@code String}.
+     *
+     * @param buffer the characters to look up, which must be lower case.
+     * @param offset the index of the first character to look up.
+     * @param length the number of characters to look up.
+     * @return the word in this dictionary that is equal to the characters, or null if there isn't one.
+     */
+    public String lookup(final char[] buffer, final int offset, final int length)
+    {
+        // The same hash as String.hashCode, so it can be compared with the hashes of the words
+        int hash = 0;
+        for (int i = offset; i < offset + length; i++)
+        {
+            hash = 31 * hash + buffer[i];
+        }
+        final int mask = word_table.length - 1;
+        for (int slot = spread(hash) & mask; word_table[slot] != null; slot = (slot + 1) & mask)
+        {
+            final String word = word_table[slot];
+            if (word_hashes[slot] == hash && word.length() == length && regionMatches(word, buffer, offset))
+            {
+                return word;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Gets the rank of a word in this dictionary, as it was when the dictionary was created.
+     *
+     * @param word the word to get the rank of, such as one returned by {@link #lookup(char[], int, int)}.
+     * @return the rank of the word, or null if it isn't in this dictionary.
+     */
+    public Integer getRank(final String word)
+    {
+        final int hash = word.hashCode();
+        final int mask = word_table.length - 1;
+        for (int slot = spread(hash) & mask; word_table[slot] != null; slot = (slot + 1) & mask)
+        {
+            if (word_hashes[slot] == hash && word_table[slot].equals(word))
+            {
+                return word_ranks[slot];
+            }
+        }
+        return null;
+    }
+
+    private static boolean regionMatches(final String word, final char[] buffer, final int offset)
+    {
+        for (int i = 0; i < word.length(); i++)
+        {
+            if (word.charAt(i) != buffer[offset + i])
+            {
+                return false;
+            }
+        }
+        return true;
     }
 
     /**
@@ -85,6 +182,31 @@ public class Dictionary
         return dictonary;
     }
 
+    /**
+     * Gets a digest of the words in this dictionary and their ranks, so dictionaries with the same contents can be
+     * told apart from those without, without comparing every word.
+     * <br><br>
+     * Like matching, this uses the words and ranks as they were when the dictionary was created.
+     *
+     * @return a hex encoded SHA-256 hash of the words, in sorted order, and their ranks
+     */
+    public String getDigest()
+    {
+        String result = digest;
+        if (result == null)
+        {
+            final MessageDigest sha256 = Configuration.newSha256();
+            for (String word : sorted_dictionary)
+            {
+                // Prefixed with the length, so the words can't run together
+                sha256.update((word.length() + ":" + word + ":" + getRank(word) + "\n").getBytes(StandardCharsets.UTF_8));
+            }
+            result = Configuration.toHex(sha256.digest());
+            digest = result;
+        }
+        return result;
+    }
+
     /**
      * This contains the same values as in getDictionary, but is sorted for optimizing the speed
      * of the distance calculation
@@ -0,0 +1,106 @@
+package me.gosimple.nbvcxz.resources;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Remembers the values found in a {@link Dictionary} for lower case parts of passwords, so parts which show up in
+ * many passwords, such as "pass", "love" or "123", are found with one lookup instead of being reversed and having
+ * their leet substitutions removed again for each password.  Only parts with something found are remembered, so
+ * parts which aren't in the dictionary, such as most of a password which isn't a common one, are never kept.
+ * <br><br>
+ * The cache is split into two generations.  Once the newer one is full it becomes the older one, and the previous
+ * older one is dropped.  Parts found in the older generation are moved back into the newer one, so parts which keep
+ * showing up stay cached, and the cache never holds more than twice the max size.
+ * <br><br>
+ * This class is thread safe.
+ *
+ * @author Adam Brusselback.
+ */
+public final class DictionaryCache
+{
+    private final int max_size;
+    private volatile ConcurrentHashMap<String, List<DictionaryHit>> current;
+    private volatile ConcurrentHashMap<String, List<DictionaryHit>> previous;
+
+    /**
+     * @param max_size the most parts to keep in each generation, or 0 to not cache anything
+     */
+    public DictionaryCache(final int max_size)
+    {
+        if (max_size < 0)
+        {
+            throw new IllegalArgumentException("The max size must not be negative.");
+        }
+        this.max_size = max_size;
+        this.current = new ConcurrentHashMap<>();
+        this.previous = new ConcurrentHashMap<>();
+    }
+
+    /**
+     * @param lower_part the lower case part of a password
+     * @return the values found for the part, or null if the part isn't cached
+     */
+    public List<DictionaryHit> get(final String lower_part)
+    {
+        if (max_size == 0)
+        {
+            return null;
+        }
+        List<DictionaryHit> hits = current.get(lower_part);
+        if (hits == null)
+        {
+            hits = previous.get(lower_part);
+            if (hits != null)
+            {
+                put(lower_part, hits);
+            }
+        }
+        return hits;
+    }
+
+    /**
+     * @param lower_part the lower case part of a password
+     * @param hits       the values found for the part, which aren't remembered if empty
+     */
+    public void put(final String lower_part, final List<DictionaryHit> hits)
+    {
+        if (max_size == 0 || hits.isEmpty())
+        {
+            return;
+        }
+        final ConcurrentHashMap<String, List<DictionaryHit>> generation = current;
+        generation.put(lower_part, hits);
+        if (generation.size() >= max_size)
+        {
+            synchronized (this)
+            {
+                if (current == generation)
+                {
+                    previous = generation;
+                    current = new ConcurrentHashMap<>();
+                }
+            }
+        }
+    }
+
+    /**
+     * @return the number of parts cached
+     */
+    public int size()
+    {
+        return current.size() + previous.size();
+    }
+
+    /**
+     * Removes every cached part, such as after the values of the dictionary were changed.
+     */
+    public void clear()
+    {
+        synchronized (this)
+        {
+            previous = new ConcurrentHashMap<>();
+            current = new ConcurrentHashMap<>();
+        }
+    }
+}
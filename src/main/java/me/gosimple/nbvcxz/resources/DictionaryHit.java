@@ -0,0 +1,61 @@
+package me.gosimple.nbvcxz.resources;
+
+/**
+ * A value in a {@link Dictionary} which was found for a lower case part of a password, as it is, reversed, or with
+ * leet substitutions removed.
+ *
+ * @author Adam Brusselback.
+ */
+public final class DictionaryHit
+{
+    private final String dictionaryValue;
+    private final int rank;
+    private final boolean reversed;
+    private final boolean leet;
+
+    /**
+     * @param dictionaryValue the value found in the dictionary
+     * @param rank            the rank of the value in the dictionary
+     * @param reversed        true if the value was found for the part reversed
+     * @param leet            true if the value was found for the part with leet substitutions removed
+     */
+    public DictionaryHit(final String dictionaryValue, final int rank, final boolean reversed, final boolean leet)
+    {
+        this.dictionaryValue = dictionaryValue;
+        this.rank = rank;
+        this.reversed = reversed;
+        this.leet = leet;
+    }
+
+    /**
+     * @return the value found in the dictionary
+     */
+    public String getDictionaryValue()
+    {
+        return dictionaryValue;
+    }
+
+    /**
+     * @return the rank of the value in the dictionary
+     */
+    public int getRank()
+    {
+        return rank;
+    }
+
+    /**
+     * @return true if the value was found for the part reversed
+     */
+    public boolean isReversed()
+    {
+        return reversed;
+    }
+
+    /**
+     * @return true if the value was found for the part with leet substitutions removed
+     */
+    public boolean isLeet()
+    {
+        return leet;
+    }
+}
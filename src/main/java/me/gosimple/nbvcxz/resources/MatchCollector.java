@@ -0,0 +1,115 @@
+package me.gosimple.nbvcxz.resources;
+
+import me.gosimple.nbvcxz.matching.match.Match;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Collects matches for a password, keeping only the lowest average entropy matches for each start / end index.
+ * Matches tied for the lowest average entropy are all kept.
+ * <br>
+ * Matches are compared as they are added, so a dominated match is never held on to.
+ *
+ * @author Adam Brusselback.
+ */
+public class MatchCollector
+{
+    private final int length;
+    // Position + 1 in the matches list of the last match kept for each start index, by length; 0 when there is none.
+    private final int[][] positions;
+    // Position + 1 in the matches list of the previous match tied with the match at each position; 0 when there is none.
+    private int[] ties;
+    private final List<Match> matches;
+    private int removed;
+
+    /**
+     * @param length the length of the password matches will be collected for
+     */
+    public MatchCollector(final int length)
+    {
+        this.length = length;
+        this.positions = new int[length][];
+        this.ties = new int[16];
+        this.matches = new ArrayList<>();
+        this.removed = 0;
+    }
+
+    /**
+     * Adds a match, unless a match with the same start and end index with a lower average entropy was already added.
+     * Matches already added for the same start and end index with a higher average entropy are dropped.
+     *
+     * @param match the match to add
+     */
+    public void add(final Match match)
+    {
+        final int start = match.getStartIndex();
+        if (positions[start] == null)
+        {
+            positions[start] = new int[length - start];
+        }
+        final int offset = match.getEndIndex() - start;
+        int tie = 0;
+        int position = positions[start][offset] - 1;
+        if (position != -1)
+        {
+            final double current_average = matches.get(position).getAverageEntropy();
+            final double average = match.getAverageEntropy();
+            if (current_average < average)
+            {
+                return;
+            }
+            if (current_average == average)
+            {
+                tie = position + 1;
+            }
+            else
+            {
+                while (position != -1)
+                {
+                    matches.set(position, null);
+                    removed++;
+                    position = ties[position] - 1;
+                }
+            }
+        }
+        if (matches.size() == ties.length)
+        {
+            ties = Arrays.copyOf(ties, ties.length * 2);
+        }
+        ties[matches.size()] = tie;
+        matches.add(match);
+        positions[start][offset] = matches.size();
+    }
+
+    /**
+     * Adds every match in the collection passed in.
+     *
+     * @param matches the matches to add
+     */
+    public void addAll(final Collection<Match> matches)
+    {
+        for (Match match : matches)
+        {
+            add(match);
+        }
+    }
+
+    /**
+     * @return the matches which were kept, in the order they were added
+     */
+    public List<Match> getMatches()
+    {
+        final List<Match> kept = new ArrayList<>(matches.size() - removed);
+        for (Match match : matches)
+        {
+            if (match != null)
+            {
+                kept.add(match);
+            }
+        }
+        return kept;
+    }
+}
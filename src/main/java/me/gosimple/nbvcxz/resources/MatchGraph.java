@@ -0,0 +1,177 @@
+package me.gosimple.nbvcxz.resources;
+
+import me.gosimple.nbvcxz.matching.match.Match;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Graph of the ways matches for a password can follow each other without intersecting, used when searching for the
+ * best combination of matches.
+ * <br><br>
+ * Matches are sorted by start index and length, and identified by their position in that order.
+ * The successors of a match are the matches which start after it ends, and have no other match fitting entirely
+ * between the two of them.  Seeds are the matches with no other match fitting entirely before them, and leaves are
+ * the matches with no successors.  Every path from a seed to a leaf is a combination of matches that no other match
+ * could be added to.
+ * <br><br>
+ * Since matches are sorted by start index, the successors of a match are always a contiguous range of ids, as are
+ * the seeds, so the graph is built in {@code O(m log m)} for {@code m} matches.
+ *
+ * @author Adam Brusselback.
+ */
+public class MatchGraph
+{
+    private static final Comparator<Match> START_INDEX_COMPARATOR = new Comparator<Match>()
+    {
+        @Override
+        public int compare(Match match_1, Match match_2)
+        {
+            int c = Integer.compare(match_1.getStartIndex(), match_2.getStartIndex());
+            if (c != 0)
+            {
+                return c;
+            }
+            return Integer.compare(match_1.getLength(), match_2.getLength());
+        }
+    };
+
+    private final int password_length;
+    private final List<Match> matches;
+    private final int[] successor_start;
+    private final int[] successor_end;
+    private final int seed_count;
+
+    /**
+     * @param password_length the length of the password the matches were found in
+     * @param matches         the matches found for the password, which will not be modified
+     */
+    public MatchGraph(final int password_length, final List<Match> matches)
+    {
+        this.password_length = password_length;
+        this.matches = new ArrayList<>(matches);
+        Collections.sort(this.matches, START_INDEX_COMPARATOR);
+
+        final int size = this.matches.size();
+
+        // first_starting_from[i] is the id of the first match which starts at or after i.
+        final int[] first_starting_from = new int[password_length + 1];
+        // min_end_from[i] is the lowest end index of any match which starts at or after i, or password_length if none.
+        final int[] min_end_from = new int[password_length + 1];
+        Arrays.fill(first_starting_from, size);
+        Arrays.fill(min_end_from, password_length);
+        for (int id = size - 1; id >= 0; id--)
+        {
+            Match match = this.matches.get(id);
+            first_starting_from[match.getStartIndex()] = id;
+            min_end_from[match.getStartIndex()] = Math.min(min_end_from[match.getStartIndex()], match.getEndIndex());
+        }
+        for (int i = password_length - 1; i >= 0; i--)
+        {
+            first_starting_from[i] = Math.min(first_starting_from[i], first_starting_from[i + 1]);
+            min_end_from[i] = Math.min(min_end_from[i], min_end_from[i + 1]);
+        }
+
+        // A match can follow another one as long as it starts no later than the first end index of any match
+        // starting after the other one, otherwise that match would fit in between.
+        this.successor_start = new int[size];
+        this.successor_end = new int[size];
+        for (int id = 0; id < size; id++)
+        {
+            int after = this.matches.get(id).getEndIndex() + 1;
+            successor_start[id] = first_starting_from[after];
+            successor_end[id] = min_end_from[after] == password_length ? size : first_starting_from[min_end_from[after] + 1];
+        }
+        this.seed_count = size == 0 ? 0 : first_starting_from[min_end_from[0] + 1];
+    }
+
+    /**
+     * @return the length of the password the matches were found in
+     */
+    public int getPasswordLength()
+    {
+        return password_length;
+    }
+
+    /**
+     * @return the number of matches in the graph
+     */
+    public int size()
+    {
+        return matches.size();
+    }
+
+    /**
+     * @param id the id of the match
+     * @return the match with that id
+     */
+    public Match getMatch(final int id)
+    {
+        return matches.get(id);
+    }
+
+    /**
+     * @return all matches in the graph, sorted by start index and length, so the index of each match is its id
+     */
+    public List<Match> getMatches()
+    {
+        return Collections.unmodifiableList(matches);
+    }
+
+    /**
+     * @param id the id of the match
+     * @return the id of the first successor of the match
+     */
+    public int getSuccessorStart(final int id)
+    {
+        return successor_start[id];
+    }
+
+    /**
+     * @param id the id of the match
+     * @return the id after the last successor of the match, equal to {@link #getSuccessorStart(int)} if it has none
+     */
+    public int getSuccessorEnd(final int id)
+    {
+        return successor_end[id];
+    }
+
+    /**
+     * @param id the id of the match
+     * @return the matches which can follow the match, sorted by start index and length
+     */
+    public List<Match> getSuccessors(final int id)
+    {
+        return getMatches().subList(successor_start[id], successor_end[id]);
+    }
+
+    /**
+     * @param id the id of the match
+     * @return true if no match can follow the match
+     */
+    public boolean isLeaf(final int id)
+    {
+        return successor_start[id] == successor_end[id];
+    }
+
+    /**
+     * The seeds are always the first matches in the graph, so their ids go from 0 to the seed count.
+     *
+     * @return the number of matches which a combination can start with
+     */
+    public int getSeedCount()
+    {
+        return seed_count;
+    }
+
+    /**
+     * @return the matches which a combination can start with, sorted by start index and length
+     */
+    public List<Match> getSeeds()
+    {
+        return getMatches().subList(0, seed_count);
+    }
+}
@@ -0,0 +1,56 @@
+package me.gosimple.nbvcxz.resources;
+
+import java.util.Locale;
+import java.util.ResourceBundle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Keeps the resource bundles loaded for each locale, so creating a {@link Configuration} doesn't look them up on the
+ * classpath again.  The bundles never fall back to the default locale of the JVM, only to the base bundle.
+ *
+ * @author Adam Brusselback.
+ */
+final class ResourceBundleCache
+{
+    private static final ResourceBundle.Control NO_FALLBACK_CONTROL = ResourceBundle.Control.getNoFallbackControl(ResourceBundle.Control.FORMAT_PROPERTIES);
+    private static final ConcurrentMap<Locale, ResourceBundle> MAIN = new ConcurrentHashMap<>();
+    private static final ConcurrentMap<Locale, ResourceBundle> FEEDBACK = new ConcurrentHashMap<>();
+
+    private ResourceBundleCache()
+    {
+    }
+
+    /**
+     * @param locale the locale of the text
+     * @return the resource bundle which contains the text for everything but feedback
+     */
+    static ResourceBundle getMainResource(final Locale locale)
+    {
+        return getBundle(MAIN, "main", locale);
+    }
+
+    /**
+     * @param locale the locale of the text
+     * @return the resource bundle which contains the text for feedback
+     */
+    static ResourceBundle getFeedbackResource(final Locale locale)
+    {
+        return getBundle(FEEDBACK, "feedback", locale);
+    }
+
+    private static ResourceBundle getBundle(final ConcurrentMap<Locale, ResourceBundle> bundles, final String name, final Locale locale)
+    {
+        ResourceBundle bundle = bundles.get(locale);
+        if (bundle == null)
+        {
+            bundle = ResourceBundle.getBundle(name, locale, NO_FALLBACK_CONTROL);
+            final ResourceBundle loaded = bundles.putIfAbsent(locale, bundle);
+            if (loaded != null)
+            {
+                bundle = loaded;
+            }
+        }
+        return bundle;
+    }
+}
@@ -0,0 +1,138 @@
+package me.gosimple.nbvcxz.scoring;
+
+import me.gosimple.nbvcxz.resources.Feedback;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The parts of a {@link Result} which can be kept without keeping the password, or any part of it.
+ * <br><br>
+ * Only the keys and text of the feedback are kept, never the tokens they were about, or the {@link Feedback} and
+ * configuration they came from.
+ *
+ * @author Adam Brusselback.
+ */
+public class EstimateSummary
+{
+    private final double entropy;
+    private final int basic_score;
+    private final boolean minimum_entropy_met;
+    private final boolean random;
+    private final boolean approximate;
+    private final String feedback_result;
+    private final String warning_key;
+    private final String warning;
+    private final List<String> suggestion_keys;
+    private final List<String> suggestions;
+
+    /**
+     * @param result the result to summarize, which must have been estimated at the full detail level.
+     */
+    public EstimateSummary(final Result result)
+    {
+        this.entropy = result.getEntropy();
+        this.basic_score = result.getBasicScore();
+        this.minimum_entropy_met = result.isMinimumEntropyMet();
+        this.random = result.isRandom();
+        this.approximate = result.isApproximate();
+        final Feedback feedback = result.getFeedback();
+        this.feedback_result = feedback.getResult();
+        this.warning_key = feedback.getWarningKey();
+        this.warning = feedback.getWarning();
+        this.suggestion_keys = Collections.unmodifiableList(new ArrayList<>(feedback.getSuggestionKeys()));
+        this.suggestions = Collections.unmodifiableList(feedback.getSuggestion());
+    }
+
+    /**
+     * @return the estimated entropy, see {@link Result#getEntropy()}.
+     */
+    public double getEntropy()
+    {
+        return entropy;
+    }
+
+    /**
+     * @return the estimated number of guesses, see {@link Result#getGuesses()}.
+     */
+    public BigDecimal getGuesses()
+    {
+        final Double guesses_tmp = Math.pow(2, entropy);
+        return BigDecimal.valueOf(guesses_tmp.isInfinite() ? Double.MAX_VALUE : guesses_tmp).setScale(0, RoundingMode.HALF_UP);
+    }
+
+    /**
+     * @return the score from 0-4, see {@link Result#getBasicScore()}.
+     */
+    public int getBasicScore()
+    {
+        return basic_score;
+    }
+
+    /**
+     * @return {@code true} if minimum entropy is met, see {@link Result#isMinimumEntropyMet()}.
+     */
+    public boolean isMinimumEntropyMet()
+    {
+        return minimum_entropy_met;
+    }
+
+    /**
+     * @return {@code true} if the password is considered random, see {@link Result#isRandom()}.
+     */
+    public boolean isRandom()
+    {
+        return random;
+    }
+
+    /**
+     * @return {@code true} if the result is approximate, see {@link Result#isApproximate()}.
+     */
+    public boolean isApproximate()
+    {
+        return approximate;
+    }
+
+    /**
+     * @return if the password was secure enough or not, see {@link Feedback#getResult()}.
+     */
+    public String getFeedbackResult()
+    {
+        return feedback_result;
+    }
+
+    /**
+     * @return the raw untranslated warning key (nullable), see {@link Feedback#getWarningKey()}.
+     */
+    public String getWarningKey()
+    {
+        return warning_key;
+    }
+
+    /**
+     * @return the warning (nullable), see {@link Feedback#getWarning()}.
+     */
+    public String getWarning()
+    {
+        return warning;
+    }
+
+    /**
+     * @return list of the raw untranslated suggestion keys (not null), see {@link Feedback#getSuggestionKeys()}.
+     */
+    public List<String> getSuggestionKeys()
+    {
+        return suggestion_keys;
+    }
+
+    /**
+     * @return list of suggestions (not null), see {@link Feedback#getSuggestion()}.
+     */
+    public List<String> getSuggestion()
+    {
+        return suggestions;
+    }
+}
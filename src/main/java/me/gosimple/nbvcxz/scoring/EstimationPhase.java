@@ -0,0 +1,19 @@
+package me.gosimple.nbvcxz.scoring;
+
+/**
+ * The phases an estimate goes through.
+ *
+ * @author Adam Brusselback.
+ */
+public enum EstimationPhase
+{
+    /**
+     * Running every {@link me.gosimple.nbvcxz.matching.PasswordMatcher} against the password.
+     */
+    MATCHING,
+
+    /**
+     * Searching for the best combination of the matches found.
+     */
+    COMBINATION
+}
@@ -0,0 +1,31 @@
+package me.gosimple.nbvcxz.scoring;
+
+/**
+ * The ways the combination of matches for a {@link Result} can be picked, from most to least accurate.
+ *
+ * @author Adam Brusselback.
+ */
+public enum EstimationStrategy
+{
+    /**
+     * The password looked random, so every character was brute forced without searching for a combination.
+     */
+    RANDOM,
+
+    /**
+     * The configured combination algorithm ran to completion.
+     */
+    EXHAUSTIVE,
+
+    /**
+     * A minimum entropy check was settled by bounds on the entropy of any combination, so no combination was picked.
+     * This is only counted for {@code meetsMinimumEntropy}, and is never the strategy of a {@link Result}.
+     */
+    BOUNDED,
+
+    /**
+     * The combination algorithm timed out, used up its work budget, hit the deadline of the estimate, or was disabled,
+     * so a faster, less accurate algorithm picked the combination instead.
+     */
+    FALLBACK
+}
@@ -3,12 +3,18 @@ package me.gosimple.nbvcxz.scoring;
 import me.gosimple.nbvcxz.matching.match.BruteForceMatch;
 import me.gosimple.nbvcxz.matching.match.Match;
 import me.gosimple.nbvcxz.resources.Configuration;
+import me.gosimple.nbvcxz.resources.DetailLevel;
 import me.gosimple.nbvcxz.resources.Feedback;
 import me.gosimple.nbvcxz.resources.FeedbackUtil;
 
 import java.math.BigDecimal;
 import java.math.RoundingMode;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 
 /**
  * This class contains all info about the entropy calculation.
@@ -21,6 +27,12 @@ public class Result
     final String password;
     final String full_password;
     final List<Match> matches;
+    final EstimationStrategy strategy;
+    final Set<EstimationPhase> cut_short_phases;
+    final Map<EstimationPhase, Long> phase_nanos;
+    final DetailLevel detail_level;
+    final double entropy;
+    final boolean random;
 
     /**
      * @param configuration the {@link Configuration} object.
@@ -29,13 +41,50 @@ public class Result
      * @throws IllegalStateException if the matches do not equal the original password, this will be thrown.
      */
     public Result(final Configuration configuration, final String password, final String full_password, final List<Match> matches) throws IllegalStateException
+    {
+        this(configuration, password, full_password, matches, null, EnumSet.noneOf(EstimationPhase.class), new EnumMap<EstimationPhase, Long>(EstimationPhase.class));
+    }
+
+    /**
+     * @param configuration    the {@link Configuration} object.
+     * @param password         the password this result was generated for
+     * @param matches          list of matches which when combined make up the original password
+     * @param strategy         the strategy which picked the matches
+     * @param cut_short_phases the phases of the estimate which were cut short
+     * @param phase_nanos      the time each phase of the estimate took, in nanoseconds
+     * @throws IllegalStateException if the matches do not equal the original password, this will be thrown.
+     */
+    public Result(final Configuration configuration, final String password, final String full_password, final List<Match> matches, final EstimationStrategy strategy, final Set<EstimationPhase> cut_short_phases, final Map<EstimationPhase, Long> phase_nanos) throws IllegalStateException
+    {
+        this(configuration, password, full_password, matches, strategy, cut_short_phases, phase_nanos, DetailLevel.FULL);
+    }
+
+    /**
+     * @param configuration    the {@link Configuration} object.
+     * @param password         the password this result was generated for
+     * @param matches          list of matches which when combined make up the original password
+     * @param strategy         the strategy which picked the matches
+     * @param cut_short_phases the phases of the estimate which were cut short
+     * @param phase_nanos      the time each phase of the estimate took, in nanoseconds
+     * @param detail_level     how much detail to keep, at {@link DetailLevel#SCORE} the matches are not kept or checked
+     * @throws IllegalStateException if the matches do not equal the original password, this will be thrown.
+     */
+    public Result(final Configuration configuration, final String password, final String full_password, final List<Match> matches, final EstimationStrategy strategy, final Set<EstimationPhase> cut_short_phases, final Map<EstimationPhase, Long> phase_nanos, final DetailLevel detail_level) throws IllegalStateException
     {
         this.configuration = configuration;
         this.password = password;
         this.full_password = full_password;
-        this.matches = matches;
+        this.detail_level = detail_level;
+        this.entropy = calculateEntropy(matches);
+        this.random = isRandom(matches);
+        this.matches = detail_level == DetailLevel.SCORE ? Collections.<Match>emptyList() : matches;
+        this.strategy = strategy;
+        final Set<EstimationPhase> phases = EnumSet.noneOf(EstimationPhase.class);
+        phases.addAll(cut_short_phases);
+        this.cut_short_phases = Collections.unmodifiableSet(phases);
+        this.phase_nanos = Collections.unmodifiableMap(new EnumMap<>(phase_nanos));
 
-        if (!this.isValid())
+        if (detail_level != DetailLevel.SCORE && !this.isValid())
         {
             throw new IllegalStateException("There was an unexpected error and all of the matches put together do not equal the original password.");
         }
@@ -63,6 +112,11 @@ public class Result
      * @return the estimated entropy as a {@code double}.
      */
     public Double getEntropy()
+    {
+        return entropy;
+    }
+
+    private static double calculateEntropy(final List<Match> matches)
     {
         double entropy = 0;
         for (Match match : matches)
@@ -86,7 +140,8 @@ public class Result
     /**
      * The matches that comprise this result.
      *
-     * @return a {@code List} of {@code Match} that were used in this result estimation.
+     * @return a {@code List} of {@code Match} that were used in this result estimation, empty at
+     * {@link DetailLevel#SCORE}.
      */
     public List<Match> getMatches()
     {
@@ -138,6 +193,11 @@ public class Result
      * @return true if the password is considered random, false otherwise.
      */
     public boolean isRandom()
+    {
+        return random;
+    }
+
+    private static boolean isRandom(final List<Match> matches)
     {
         boolean is_random = true;
         for (Match match : matches)
@@ -151,6 +211,71 @@ public class Result
         return is_random;
     }
 
+    /**
+     * Returns the phases of the estimate which were cut short because its deadline passed, or the combination algorithm
+     * timeout was hit.  When the matching phase was cut short, some matches may not have been found, so the entropy
+     * may be higher than it should be.  When the combination phase was cut short, a faster, less accurate algorithm
+     * was used to combine the matches.
+     *
+     * @return a {@code Set} of the phases which were cut short, empty if the estimate finished in time.
+     */
+    public Set<EstimationPhase> getCutShortPhases()
+    {
+        return cut_short_phases;
+    }
+
+    /**
+     * Returns the strategy which picked the matches for this result.
+     *
+     * @return the {@code EstimationStrategy} used, or null if this result wasn't created by an estimate.
+     */
+    public EstimationStrategy getStrategy()
+    {
+        return strategy;
+    }
+
+    /**
+     * Returns whether this result may not be as accurate as it could be, because the combination algorithm fell back
+     * to a faster one, or some matching was cut short.
+     *
+     * @return {@code true} if the result is approximate; {@code false} if not.
+     */
+    public boolean isApproximate()
+    {
+        return strategy == EstimationStrategy.FALLBACK || isCutShort();
+    }
+
+    /**
+     * Returns how long each phase of the estimate took.
+     *
+     * @return a {@code Map} of each phase to the time it took in nanoseconds, empty if this result wasn't created by
+     * an estimate.
+     */
+    public Map<EstimationPhase, Long> getPhaseNanos()
+    {
+        return phase_nanos;
+    }
+
+    /**
+     * Returns whether any phase of the estimate was cut short.
+     *
+     * @return {@code true} if the estimate was cut short; {@code false} if it finished in time.
+     */
+    public boolean isCutShort()
+    {
+        return !cut_short_phases.isEmpty();
+    }
+
+    /**
+     * Returns how much detail was kept on this result.
+     *
+     * @return the {@code DetailLevel} this result was estimated at.
+     */
+    public DetailLevel getDetailLevel()
+    {
+        return detail_level;
+    }
+
     /**
      * Returns the configuration used to generate this result.
      *
@@ -165,9 +290,14 @@ public class Result
      * Returns feedback to the user to suggest ways to improve their password.
      *
      * @return a {@code Feedback} object with suggestions for the user.
+     * @throws IllegalStateException if this result was estimated below {@link DetailLevel#FULL}.
      */
     public Feedback getFeedback()
     {
+        if (detail_level != DetailLevel.FULL)
+        {
+            throw new IllegalStateException("Feedback is not available for a result estimated at detail level " + detail_level + ".");
+        }
         return FeedbackUtil.getFeedback(this);
     }
 
@@ -184,14 +314,28 @@ public class Result
      */
     public int getBasicScore()
     {
-        final BigDecimal guesses = getGuesses();
-        if (guesses.compareTo(BigDecimal.valueOf( 1e3)) == -1)
+        return getBasicScore(getEntropy());
+    }
+
+    /**
+     * Returns the same score as {@link #getBasicScore()} for an entropy, such as one from
+     * {@link me.gosimple.nbvcxz.Nbvcxz#estimateEntropy(CharSequence)}, without needing a {@code Result}.
+     *
+     * @param entropy the entropy of a password.
+     * @return Score from 0-4, see {@link #getBasicScore()}
+     */
+    public static int getBasicScore(final double entropy)
+    {
+        final double guesses_tmp = Math.pow(2, entropy);
+        // The same as rounding the guesses half up to a whole number before comparing
+        final double guesses = Math.floor((Double.isInfinite(guesses_tmp) ? Double.MAX_VALUE : guesses_tmp) + 0.5);
+        if (guesses < 1e3)
             return 0;
-        else if (guesses.compareTo(BigDecimal.valueOf( 1e6)) == -1)
+        else if (guesses < 1e6)
             return 1;
-        else if (guesses.compareTo(BigDecimal.valueOf(1e8)) == -1)
+        else if (guesses < 1e8)
             return 2;
-        else if (guesses.compareTo(BigDecimal.valueOf(1e10)) == -1)
+        else if (guesses < 1e10)
             return 3;
         else
             return 4;
@@ -0,0 +1,137 @@
+package me.gosimple.nbvcxz;
+
+import me.gosimple.nbvcxz.resources.ConfigurationBuilder;
+import me.gosimple.nbvcxz.resources.Dictionary;
+import me.gosimple.nbvcxz.scoring.EstimateSummary;
+import me.gosimple.nbvcxz.scoring.Result;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Adam Brusselback
+ */
+public class EstimateCacheTest
+{
+    /**
+     * Test of estimate method, of class EstimateCache.
+     */
+    @Test
+    public void testEstimate()
+    {
+        final Nbvcxz nbvcxz = new Nbvcxz();
+        final EstimateCache cache = new EstimateCache(nbvcxz, 10, 0, TimeUnit.SECONDS);
+
+        final Result result = nbvcxz.estimate("correcthorsebatterystaple");
+        final EstimateSummary summary = cache.estimate("correcthorsebatterystaple");
+        Assert.assertEquals(result.getEntropy(), summary.getEntropy(), 0.000000001);
+        Assert.assertEquals(result.getBasicScore(), summary.getBasicScore());
+        Assert.assertEquals(result.getGuesses(), summary.getGuesses());
+        Assert.assertEquals(result.isMinimumEntropyMet(), summary.isMinimumEntropyMet());
+        Assert.assertEquals(result.getFeedback().getResult(), summary.getFeedbackResult());
+        Assert.assertEquals(result.getFeedback().getWarningKey(), summary.getWarningKey());
+        Assert.assertEquals(result.getFeedback().getWarning(), summary.getWarning());
+        Assert.assertEquals(result.getFeedback().getSuggestionKeys(), summary.getSuggestionKeys());
+        Assert.assertEquals(result.getFeedback().getSuggestion(), summary.getSuggestion());
+        Assert.assertEquals(0, cache.getHitCount());
+        Assert.assertEquals(1, cache.getMissCount());
+
+        Assert.assertSame(summary, cache.estimate("correcthorsebatterystaple"));
+        Assert.assertEquals(1, cache.getHitCount());
+        Assert.assertEquals(0.5, cache.getHitRate(), 0.000000001);
+
+        // A different configuration is a different entry
+        nbvcxz.setConfiguration(new ConfigurationBuilder().setMinimumEntropy(10D).createConfiguration());
+        final EstimateSummary changed = cache.estimate("correcthorsebatterystaple");
+        Assert.assertNotSame(summary, changed);
+        Assert.assertTrue(changed.isMinimumEntropyMet());
+        Assert.assertEquals(2, cache.getMissCount());
+        Assert.assertEquals(2, cache.size());
+
+        // The feedback of a weak password is kept as its keys and text
+        final Result weak_result = new Nbvcxz().estimate("password1");
+        final EstimateSummary weak = new EstimateCache(new Nbvcxz(), 10, 0, TimeUnit.SECONDS).estimate("password1");
+        Assert.assertNotNull(weak.getWarningKey());
+        Assert.assertEquals(weak_result.getFeedback().getWarning(), weak.getWarning());
+        Assert.assertEquals(weak_result.getFeedback().getSuggestion(), weak.getSuggestion());
+    }
+
+    /**
+     * Test of evicting and expiring entries, of class EstimateCache.
+     */
+    @Test
+    public void testEviction() throws InterruptedException
+    {
+        final Nbvcxz nbvcxz = new Nbvcxz();
+        final EstimateCache cache = new EstimateCache(nbvcxz, 2, 0, TimeUnit.SECONDS);
+        cache.estimate("password1");
+        cache.estimate("password2");
+        // Used most recently, so password2 is evicted first
+        cache.estimate("password1");
+        cache.estimate("password3");
+        Assert.assertEquals(2, cache.size());
+        Assert.assertEquals(1, cache.getEvictionCount());
+
+        cache.estimate("password1");
+        Assert.assertEquals(2, cache.getHitCount());
+        cache.estimate("password2");
+        Assert.assertEquals(2, cache.getHitCount());
+
+        final EstimateCache expiring = new EstimateCache(nbvcxz, 10, 1, TimeUnit.MILLISECONDS);
+        expiring.estimate("password1");
+        Thread.sleep(5);
+        expiring.estimate("password1");
+        Assert.assertEquals(0, expiring.getHitCount());
+        Assert.assertEquals(1, expiring.getExpirationCount());
+    }
+
+    /**
+     * Test of approximate results not being cached, of class EstimateCache.
+     */
+    @Test
+    public void testApproximateNotCached()
+    {
+        // Without a timeout the combination algorithm always falls back
+        final Nbvcxz nbvcxz = new Nbvcxz(new ConfigurationBuilder()
+                .setCombinationAlgorithmTimeout(0L)
+                .createConfiguration());
+        Assert.assertTrue(nbvcxz.estimate("correcthorsebatterystaple").isApproximate());
+
+        final EstimateCache cache = new EstimateCache(nbvcxz, 10, 0, TimeUnit.SECONDS);
+        final EstimateSummary summary = cache.estimate("correcthorsebatterystaple");
+        Assert.assertEquals(nbvcxz.estimate("correcthorsebatterystaple").getEntropy(), summary.getEntropy(), 0.000000001);
+        Assert.assertEquals(0, cache.size());
+        Assert.assertNotSame(summary, cache.estimate("correcthorsebatterystaple"));
+        Assert.assertEquals(0, cache.getHitCount());
+        Assert.assertEquals(2, cache.getMissCount());
+    }
+
+    /**
+     * Test of the configuration fingerprint used as part of the key, of class EstimateCache.
+     */
+    @Test
+    public void testConfigurationFingerprint()
+    {
+        final String fingerprint = new ConfigurationBuilder().createConfiguration().getFingerprint();
+        Assert.assertEquals(64, fingerprint.length());
+        Assert.assertEquals(fingerprint, new ConfigurationBuilder().createConfiguration().getFingerprint());
+        Assert.assertNotEquals(fingerprint, new ConfigurationBuilder().setMaxLength(100).createConfiguration().getFingerprint());
+        Assert.assertNotEquals(fingerprint, new ConfigurationBuilder().setDistanceCalc(false).createConfiguration().getFingerprint());
+
+        // "Aa" and "BB" have the same hash code, so these dictionaries only differ by their contents
+        final Map<String, Integer> first_words = new HashMap<>();
+        first_words.put("aa", 1);
+        first_words.put("Aa", 2);
+        final Map<String, Integer> second_words = new HashMap<>();
+        second_words.put("aa", 1);
+        second_words.put("BB", 2);
+        Assert.assertEquals(first_words.hashCode(), second_words.hashCode());
+        Assert.assertNotEquals(
+                new ConfigurationBuilder().setDictionaries(Collections.singletonList(new Dictionary("words", first_words, false))).createConfiguration().getFingerprint(),
+                new ConfigurationBuilder().setDictionaries(Collections.singletonList(new Dictionary("words", second_words, false))).createConfiguration().getFingerprint());
+    }
+}
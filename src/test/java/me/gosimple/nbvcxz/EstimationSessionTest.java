@@ -0,0 +1,96 @@
+package me.gosimple.nbvcxz;
+
+import me.gosimple.nbvcxz.resources.ConfigurationBuilder;
+import me.gosimple.nbvcxz.scoring.Result;
+import org.junit.Assert;
+import org.junit.Test;
+
+/**
+ * @author Adam Brusselback
+ */
+public class EstimationSessionTest
+{
+    /**
+     * Test of append method, of class EstimationSession.
+     */
+    @Test
+    public void testAppend()
+    {
+        final Nbvcxz nbvcxz = new Nbvcxz();
+        final EstimationSession session = new EstimationSession(nbvcxz);
+
+        final String password = "Tr0ub4dour&3 12/25/1990 correcthorse";
+        for (int i = 0; i < password.length(); i++)
+        {
+            Result result = session.append(password.substring(i, i + 1));
+            Assert.assertEquals(password.substring(0, i + 1), result.getPassword());
+            Assert.assertEquals(result.getPassword(), nbvcxz.estimate(result.getPassword()).getEntropy(), result.getEntropy(), 0.000000001);
+        }
+    }
+
+    /**
+     * Test of delete and update methods, of class EstimationSession.
+     */
+    @Test
+    public void testDeleteAndUpdate()
+    {
+        final Nbvcxz nbvcxz = new Nbvcxz();
+        final EstimationSession session = new EstimationSession(nbvcxz);
+
+        session.append("forgetthatchristmas");
+        Result result = session.delete(9);
+        Assert.assertEquals("forgetthat", result.getPassword());
+        Assert.assertEquals(nbvcxz.estimate("forgetthat").getEntropy(), result.getEntropy(), 0.000000001);
+
+        // Change a character in the middle
+        result = session.update("forgetthis");
+        Assert.assertEquals(nbvcxz.estimate("forgetthis").getEntropy(), result.getEntropy(), 0.000000001);
+
+        result = session.delete(10);
+        Assert.assertEquals("", result.getPassword());
+        Assert.assertEquals(0D, result.getEntropy(), 0.000000001);
+    }
+
+    /**
+     * Test of delete method with a count out of range, of class EstimationSession.
+     */
+    @Test
+    public void testDeleteOutOfRange()
+    {
+        final EstimationSession session = new EstimationSession(new Nbvcxz());
+        session.append("password");
+
+        for (final int count : new int[]{-1, 9})
+        {
+            try
+            {
+                session.delete(count);
+                Assert.fail("Deleting " + count + " characters should not be allowed");
+            }
+            catch (IllegalArgumentException e)
+            {
+                // Expected
+            }
+        }
+        Assert.assertEquals("password", session.getPassword());
+        Assert.assertEquals("", session.delete(8).getPassword());
+    }
+
+    /**
+     * Test of a session past the max length, of class EstimationSession.
+     */
+    @Test
+    public void testMaxLength()
+    {
+        final Nbvcxz nbvcxz = new Nbvcxz(new ConfigurationBuilder()
+                .setMaxLength(10)
+                .createConfiguration());
+        final EstimationSession session = new EstimationSession(nbvcxz);
+
+        session.append("password12");
+        Result result = session.append("34");
+        Assert.assertTrue(result.isTruncated());
+        Assert.assertEquals("password1234", result.getFullPassword());
+        Assert.assertEquals(nbvcxz.estimate("password1234").getEntropy(), result.getEntropy(), 0.000000001);
+    }
+}
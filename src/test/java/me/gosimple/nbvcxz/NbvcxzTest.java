@@ -1,16 +1,28 @@
 package me.gosimple.nbvcxz;
 
+import me.gosimple.nbvcxz.matching.PasswordMatcher;
+import me.gosimple.nbvcxz.matching.match.Match;
+import me.gosimple.nbvcxz.resources.CombinationAlgorithm;
 import me.gosimple.nbvcxz.resources.Configuration;
 import me.gosimple.nbvcxz.resources.ConfigurationBuilder;
+import me.gosimple.nbvcxz.resources.Deadline;
+import me.gosimple.nbvcxz.resources.DetailLevel;
 import me.gosimple.nbvcxz.resources.Dictionary;
 import me.gosimple.nbvcxz.resources.DictionaryBuilder;
+import me.gosimple.nbvcxz.scoring.EstimationPhase;
+import me.gosimple.nbvcxz.scoring.EstimationStrategy;
 import me.gosimple.nbvcxz.scoring.Result;
 import org.junit.Assert;
 import org.junit.Test;
 
 import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
  * Adam Brusselback
@@ -57,6 +69,66 @@ public class NbvcxzTest
         }
     }
 
+    @Test
+    public void testDerivedConfiguration()
+    {
+        Configuration configuration = new ConfigurationBuilder().createConfiguration();
+        Dictionary exclude = new DictionaryBuilder()
+                .setDictionaryName("exclude")
+                .setExclusion(true)
+                .addWord("halshauser", 0)
+                .createDictionary();
+
+        Configuration excluding = configuration.withAdditionalDictionaries(Collections.singletonList(exclude));
+        Assert.assertEquals(configuration.getDictionaries().size() + 1, excluding.getDictionaries().size());
+        Assert.assertSame(configuration.getMainResource(), excluding.getMainResource());
+        Assert.assertSame(configuration.getGuessTypes(), excluding.getGuessTypes());
+        Dictionary passwords = configuration.getDictionaries().get(0);
+        Assert.assertSame(configuration.getDictionaryCache(passwords), excluding.getDictionaryCache(passwords));
+        Assert.assertNotNull(excluding.getDictionaryCache(exclude));
+
+        Assert.assertEquals(0D, new Nbvcxz(excluding).estimate("halshauser").getEntropy(), 0D);
+        Assert.assertTrue(new Nbvcxz(configuration).estimate("halshauser").getEntropy() > 0D);
+        Assert.assertEquals(new Nbvcxz(configuration).estimate("correcthorsebatterystaple").getEntropy(), new Nbvcxz(excluding).estimate("correcthorsebatterystaple").getEntropy(), 0D);
+
+        // Settings left unset on the builder are taken from the base configuration
+        Configuration overridden = excluding.withOverrides(new ConfigurationBuilder()
+                .setMinimumEntropy(10D)
+                .setDetailLevel(DetailLevel.SCORE));
+        Assert.assertEquals(10D, overridden.getMinimumEntropy(), 0D);
+        Assert.assertEquals(DetailLevel.SCORE, overridden.getDetailLevel());
+        Assert.assertSame(excluding.getDictionaries(), overridden.getDictionaries());
+        Assert.assertEquals(excluding.getMaxLength(), overridden.getMaxLength());
+        Assert.assertEquals(excluding.getLocale(), overridden.getLocale());
+        Assert.assertSame(excluding.getDictionaryCache(exclude), overridden.getDictionaryCache(exclude));
+        Assert.assertEquals(0D, new Nbvcxz(overridden).estimate("halshauser").getEntropy(), 0D);
+
+        // Derived configurations build their fingerprint on the base's, and get the same one as if built from scratch
+        final List<Dictionary> all_dictionaries = new ArrayList<>(configuration.getDictionaries());
+        all_dictionaries.add(exclude);
+        Assert.assertNotEquals(configuration.getFingerprint(), excluding.getFingerprint());
+        Assert.assertEquals(new ConfigurationBuilder().setDictionaries(all_dictionaries).createConfiguration().getFingerprint(), excluding.getFingerprint());
+        Assert.assertEquals(new ConfigurationBuilder().setDictionaries(all_dictionaries).setMinimumEntropy(10D).createConfiguration().getFingerprint(), overridden.getFingerprint());
+
+        // The cached lookups depend on the leet table, so they aren't shared when it changes
+        Configuration noLeet = configuration.withOverrides(new ConfigurationBuilder()
+                .setLeetTable(new HashMap<Character, Character[]>()));
+        Assert.assertNotSame(configuration.getDictionaryCache(passwords), noLeet.getDictionaryCache(passwords));
+    }
+
+    @Test
+    public void testConfigurationConstructor()
+    {
+        // The original constructor gives the builder defaults for the settings added since
+        Configuration configuration = new Configuration(ConfigurationBuilder.getDefaultPasswordMatchers(), ConfigurationBuilder.getDefaultGuessTypes(), ConfigurationBuilder.getDefaultDictionaries(), ConfigurationBuilder.getDefaultAdjacencyGraphs(), ConfigurationBuilder.getDefaultLeetTable(), ConfigurationBuilder.getDefaultYearPattern(), ConfigurationBuilder.getDefaultMinimumEntropy(), ConfigurationBuilder.getDefaultMaxLength(), Locale.getDefault(), ConfigurationBuilder.getDefaultDistanceCalc(), ConfigurationBuilder.getDefaultCombinationAlgorithmTimeout());
+        Configuration built = new ConfigurationBuilder().createConfiguration();
+        Assert.assertEquals(built.getCombinationAlgorithm(), configuration.getCombinationAlgorithm());
+        Assert.assertEquals(built.getDetailLevel(), configuration.getDetailLevel());
+        Assert.assertEquals(built.getDictionaryCacheSize(), configuration.getDictionaryCacheSize());
+        Assert.assertEquals(built.getFingerprint(), configuration.getFingerprint());
+        Assert.assertEquals(new Nbvcxz(built).estimate("correcthorsebatterystaple").getEntropy(), new Nbvcxz(configuration).estimate("correcthorsebatterystaple").getEntropy(), 0D);
+    }
+
     @Test
     public void testMaxLength()
     {
@@ -86,6 +158,59 @@ public class NbvcxzTest
         }
     }
 
+    /**
+     * Test of splitting passwords longer than the max length, of class Nbvcxz.
+     */
+    @Test
+    public void testSplitLongPasswords()
+    {
+        Configuration configuration = new ConfigurationBuilder()
+                .setMaxLength(50)
+                .setSplitLongPasswords(true)
+                .createConfiguration();
+
+        final Nbvcxz nbvcxz = new Nbvcxz(configuration);
+
+        // Short passwords are estimated the same as always
+        Assert.assertEquals(16.60965490131509D, nbvcxz.estimate("correcthorsebatterystaple").getEntropy(), 0.000000001);
+
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 200; i++)
+        {
+            builder.append("shortened_password ").append(i).append(' ');
+        }
+        final String password = builder.toString();
+        final Result result = nbvcxz.estimate(password);
+
+        Assert.assertFalse(result.isTruncated());
+        Assert.assertEquals(password, result.getPassword());
+        Assert.assertTrue(result.getEntropy() > 88.92309252275015D);
+
+        // The matches from each window are moved to where they are in the whole password
+        int index = 0;
+        for (Match match : result.getMatches())
+        {
+            Assert.assertEquals(index, match.getStartIndex());
+            Assert.assertEquals(password.substring(match.getStartIndex(), match.getEndIndex() + 1), match.getToken());
+            index = match.getEndIndex() + 1;
+        }
+        Assert.assertEquals(password.length(), index);
+
+        Assert.assertEquals(result.isMinimumEntropyMet(), nbvcxz.meetsMinimumEntropy(password));
+
+        // Windows are never cut inside of a surrogate pair
+        final StringBuilder emoji = new StringBuilder();
+        for (int i = 0; i < 60; i++)
+        {
+            emoji.append("\uD83D\uDE00a");
+        }
+        for (Match match : nbvcxz.estimate(emoji.toString()).getMatches())
+        {
+            Assert.assertFalse(Character.isLowSurrogate(match.getToken().charAt(0)));
+            Assert.assertFalse(Character.isHighSurrogate(match.getToken().charAt(match.getToken().length() - 1)));
+        }
+    }
+
     /**
      * Test of estimate method, of class Nbvcxz.
      */
@@ -131,6 +256,525 @@ public class NbvcxzTest
         }
     }
 
+    /**
+     * Test of estimate method with pruning of the recursive combination algorithm, of class Nbvcxz.
+     * The results should be exactly the same as without pruning.
+     */
+    @Test
+    public void testEstimatePruning()
+    {
+        Configuration configuration = new ConfigurationBuilder()
+                .setCombinationAlgorithmPruning(true)
+                .createConfiguration();
+
+        final Nbvcxz nbvcxz = new Nbvcxz(configuration);
+
+        final List<EntropyTest> tests = new ArrayList<>();
+        tests.add(new EntropyTest(nbvcxz,"correcthorsebatterystaple",16.60965490131509D));
+        tests.add(new EntropyTest(nbvcxz,"a.b.c.defy",35.05294537608871D));
+        tests.add(new EntropyTest(nbvcxz,"helpimaliveinhere",40.376705346635696D));
+        tests.add(new EntropyTest(nbvcxz,"damnwindowsandpaper",31.086623767089435D));
+        tests.add(new EntropyTest(nbvcxz,"1qaz2wsx3edc",10.523561956057012D));
+        tests.add(new EntropyTest(nbvcxz,"temppass22",16.892495383759368D));
+        tests.add(new EntropyTest(nbvcxz,"baseball2014",10.59618975614441D));
+        tests.add(new EntropyTest(nbvcxz,"ScoRpi0ns",20.46971136544417D));
+        tests.add(new EntropyTest(nbvcxz,"thereisneveragoodmonday",44.52675492064834D));
+        tests.add(new EntropyTest(nbvcxz,"forgetthatchristmaspartytheotheryear",42.69087661112469D));
+        tests.add(new EntropyTest(nbvcxz,"A Fool and His Money Are Soon Parted",84.88322715518174D));
+        tests.add(new EntropyTest(nbvcxz,"6c891879ed0a0bbf701d5ca8af39a766",124.22235013869417D));
+
+        try
+        {
+            for (final EntropyTest test : tests)
+            {
+                test.run();
+                Assert.assertEquals(test.getPassword(), test.getExpectedEntropy(), test.getEntropy(), test.getDelta());
+            }
+        }
+        catch (Exception e)
+        {
+            assert false;
+        }
+    }
+
+    /**
+     * Test of estimate method using the dynamic combination algorithm, of class Nbvcxz.
+     */
+    @Test
+    public void testEstimateDynamicCombination()
+    {
+        Configuration configuration = new ConfigurationBuilder()
+                .setCombinationAlgorithm(CombinationAlgorithm.DYNAMIC)
+                .createConfiguration();
+
+        final Nbvcxz nbvcxz = new Nbvcxz(configuration);
+
+        final List<EntropyTest> tests = new ArrayList<>();
+        tests.add(new EntropyTest(nbvcxz,"correcthorsebatterystaple",16.60965490131509D));
+        tests.add(new EntropyTest(nbvcxz,"a.b.c.defy",35.05294537608871D));
+        tests.add(new EntropyTest(nbvcxz,"helpimaliveinhere",39.736275149583484D));
+        tests.add(new EntropyTest(nbvcxz,"damnwindowsandpaper",31.086623767089435D));
+        tests.add(new EntropyTest(nbvcxz,"zxcvbnm",5.321928094887363D));
+        tests.add(new EntropyTest(nbvcxz,"1qaz2wsx3edc",10.523561956057012D));
+        tests.add(new EntropyTest(nbvcxz,"temppass22",16.892495383759368D));
+        tests.add(new EntropyTest(nbvcxz,"briansmith",4.321928094887363D));
+        tests.add(new EntropyTest(nbvcxz,"thx1138",8.049848549450562D));
+        tests.add(new EntropyTest(nbvcxz,"baseball2014",10.59618975614441D));
+        tests.add(new EntropyTest(nbvcxz,"ScoRpi0ns",19.3817879533149D));
+        tests.add(new EntropyTest(nbvcxz,"thereisneveragoodmonday",41.58420930363401D));
+        tests.add(new EntropyTest(nbvcxz,"forgetthatchristmaspartytheotheryear",39.519621936739505D));
+        tests.add(new EntropyTest(nbvcxz,"A Fool and His Money Are Soon Parted",84.88322715518174D));
+        tests.add(new EntropyTest(nbvcxz,"6c891879ed0a0bbf701d5ca8af39a766",124.22235013869417D));
+        tests.add(new EntropyTest(nbvcxz,"correcthorsebatterystaplecorrecthorsebatterystaplecorrecthorsebatterystaple",49.82896470394527D));
+
+        try
+        {
+            for (final EntropyTest test : tests)
+            {
+                test.run();
+                Assert.assertEquals(test.getPassword(), test.getExpectedEntropy(), test.getEntropy(), test.getDelta());
+            }
+        }
+        catch (Exception e)
+        {
+            assert false;
+        }
+    }
+
+    /**
+     * Test of estimate method using the dynamic combination algorithm never estimating more entropy than the recursive
+     * combination algorithm, of class Nbvcxz.
+     */
+    @Test
+    public void testEstimateDynamicCombinationConservative()
+    {
+        final Nbvcxz recursive = new Nbvcxz(new ConfigurationBuilder()
+                .setCombinationAlgorithmTimeout(60000L)
+                .createConfiguration());
+        final Nbvcxz dynamic = new Nbvcxz(new ConfigurationBuilder()
+                .setCombinationAlgorithm(CombinationAlgorithm.DYNAMIC)
+                .createConfiguration());
+
+        final String[] passwords = {"correcthorsebatterystaple", "a.b.c.defy", "helpimaliveinhere", "damnwindowsandpaper",
+                "zxcvbnm", "1qaz2wsx3edc", "temppass22", "briansmith", "thx1138", "baseball2014", "baseball1994",
+                "baseball2028", "scorpions", "ScoRpions", "ScoRpi0ns", "thereisneveragoodmonday",
+                "forgetthatchristmaspartytheotheryear", "A Fool and His Money Are Soon Parted",
+                "6c891879ed0a0bbf701d5ca8af39a766", "halshauser5696311", "Tr0ub4dor&3", "P@SSWORD", "12/25/1990",
+                "c0rr3ct h0rs3 b4tt3ry st4pl3"};
+        for (String password : passwords)
+        {
+            final Result result = recursive.estimate(password);
+            Assert.assertFalse(password, result.isCutShort());
+            Assert.assertTrue(password, dynamic.estimate(password).getEntropy() <= result.getEntropy() + 0.000000001);
+        }
+    }
+
+    /**
+     * Test of estimate method with the parallel combination algorithm, of class Nbvcxz.
+     */
+    @Test
+    public void testEstimateParallelCombination()
+    {
+        final Nbvcxz parallel = new Nbvcxz(new ConfigurationBuilder()
+                .setCombinationAlgorithm(CombinationAlgorithm.PARALLEL)
+                .setCombinationAlgorithmTimeout(60000L)
+                .createConfiguration());
+
+        // The most complete, lowest entropy combination wins, no matter which worker finds it first
+        final List<EntropyTest> tests = new ArrayList<>();
+        tests.add(new EntropyTest(parallel,"correcthorsebatterystaple",16.60965490131509D));
+        tests.add(new EntropyTest(parallel,"a.b.c.defy",35.99191594269114D));
+        tests.add(new EntropyTest(parallel,"helpimaliveinhere",40.376705346635696D));
+        tests.add(new EntropyTest(parallel,"damnwindowsandpaper",31.086623767089435D));
+        tests.add(new EntropyTest(parallel,"1qaz2wsx3edc",10.523561956057012D));
+        tests.add(new EntropyTest(parallel,"temppass22",16.892495383759368D));
+        tests.add(new EntropyTest(parallel,"baseball2014",10.59618975614441D));
+        tests.add(new EntropyTest(parallel,"ScoRpi0ns",20.46971136544417D));
+        tests.add(new EntropyTest(parallel,"thereisneveragoodmonday",44.52675492064834D));
+        tests.add(new EntropyTest(parallel,"forgetthatchristmaspartytheotheryear",39.519621936739505D));
+        tests.add(new EntropyTest(parallel,"A Fool and His Money Are Soon Parted",84.88322715518174D));
+        tests.add(new EntropyTest(parallel,"correcthorsebatterystaplecorrecthorsebatterystaplecorrecthorsebatterystaple",49.82896470394527D));
+        for (final EntropyTest test : tests)
+        {
+            final Result result = parallel.estimate(test.getPassword());
+            Assert.assertEquals(test.getPassword(), test.getExpectedEntropy(), result.getEntropy(), test.getDelta());
+            Assert.assertNotEquals(test.getPassword(), EstimationStrategy.FALLBACK, result.getStrategy());
+        }
+
+        // Running out of work budget falls back the same as the recursive algorithm
+        final Nbvcxz budgeted = new Nbvcxz(new ConfigurationBuilder()
+                .setCombinationAlgorithm(CombinationAlgorithm.PARALLEL)
+                .setCombinationAlgorithmWorkBudget(10L)
+                .createConfiguration());
+        Result result = budgeted.estimate("forgetthatchristmaspartytheotheryear");
+        Assert.assertEquals(EstimationStrategy.FALLBACK, result.getStrategy());
+        Assert.assertTrue(result.getCutShortPhases().contains(EstimationPhase.COMBINATION));
+
+        // A deadline which passes before the search starts stops it, even when it explores only a few combinations
+        final List<PasswordMatcher> matchers = new ArrayList<>(ConfigurationBuilder.getDefaultPasswordMatchers());
+        matchers.add(new PasswordMatcher()
+        {
+            @Override
+            public List<Match> match(Configuration configuration, String password)
+            {
+                Deadline.current().cancel();
+                return new ArrayList<>();
+            }
+        });
+        final Nbvcxz cancelled = new Nbvcxz(new ConfigurationBuilder()
+                .setPasswordMatchers(matchers)
+                .setCombinationAlgorithm(CombinationAlgorithm.PARALLEL)
+                .setCombinationAlgorithmTimeout(60000L)
+                .createConfiguration());
+        result = cancelled.estimate("correcthorsebatterystaple", Deadline.after(1, TimeUnit.MINUTES));
+        Assert.assertEquals(EstimationStrategy.FALLBACK, result.getStrategy());
+        Assert.assertTrue(result.getCutShortPhases().contains(EstimationPhase.COMBINATION));
+    }
+
+    /**
+     * Test of estimateChars method, and estimate method with a CharSequence, of class Nbvcxz.
+     */
+    @Test
+    public void testEstimateCharacters()
+    {
+        final Nbvcxz nbvcxz = new Nbvcxz();
+        final char[] password = "correcthorsebatterystaple".toCharArray();
+
+        final Result result = nbvcxz.estimateChars(password);
+        Assert.assertEquals(16.60965490131509D, result.getEntropy(), 0.000000001);
+        Assert.assertEquals(16.60965490131509D, nbvcxz.estimate(new StringBuilder("correcthorsebatterystaple")).getEntropy(), 0.000000001);
+
+        // The buffer can be cleared without changing the result
+        Arrays.fill(password, '\0');
+        Assert.assertEquals("correcthorsebatterystaple", result.getPassword());
+        Assert.assertEquals(16.60965490131509D, result.getEntropy(), 0.000000001);
+    }
+
+    /**
+     * Test of estimateEntropy method, of class Nbvcxz.
+     */
+    @Test
+    public void testEstimateEntropy()
+    {
+        final Nbvcxz nbvcxz = new Nbvcxz();
+        for (String password : new String[]{"correcthorsebatterystaple", "a.b.c.defy", "1qaz2wsx3edc", "ScoRpi0ns", "6c891879ed0a0bbf701d5ca8af39a766", ""})
+        {
+            Assert.assertEquals(password, nbvcxz.estimate(password).getEntropy(), nbvcxz.estimateEntropy(password), 0.000000001);
+            Assert.assertEquals(password, nbvcxz.estimate(password).getEntropy(), nbvcxz.estimateEntropy(new StringBuilder(password)), 0.000000001);
+        }
+    }
+
+    /**
+     * Test of estimateWithDetail method, of class Nbvcxz.
+     */
+    @Test
+    public void testEstimateDetailLevel()
+    {
+        final Nbvcxz nbvcxz = new Nbvcxz();
+        final String password = "correcthorsebatterystaple";
+        final Result full = nbvcxz.estimate(password);
+        Assert.assertEquals(DetailLevel.FULL, full.getDetailLevel());
+        Assert.assertNotNull(full.getFeedback());
+
+        final Result matches = nbvcxz.estimateWithDetail(password, DetailLevel.MATCHES);
+        Assert.assertEquals(full.getEntropy(), matches.getEntropy(), 0.000000001);
+        Assert.assertEquals(full.getMatches().size(), matches.getMatches().size());
+        try
+        {
+            matches.getFeedback();
+            Assert.fail("Feedback should not be available for MATCHES");
+        }
+        catch (IllegalStateException e)
+        {
+            // Expected
+        }
+
+        // The detail level can be set on the configuration instead
+        final Nbvcxz score_only = new Nbvcxz(new ConfigurationBuilder().setDetailLevel(DetailLevel.SCORE).createConfiguration());
+        final Result score = score_only.estimate(password);
+        Assert.assertEquals(DetailLevel.SCORE, score.getDetailLevel());
+        Assert.assertEquals(full.getEntropy(), score.getEntropy(), 0.000000001);
+        Assert.assertEquals(full.getBasicScore(), score.getBasicScore());
+        Assert.assertEquals(full.isRandom(), score.isRandom());
+        Assert.assertTrue(score.getMatches().isEmpty());
+        try
+        {
+            score.getFeedback();
+            Assert.fail("Feedback should not be available for SCORE");
+        }
+        catch (IllegalStateException e)
+        {
+            // Expected
+        }
+    }
+
+    /**
+     * Test of estimateAll method, of class Nbvcxz.
+     */
+    @Test
+    public void testEstimateAll()
+    {
+        final Nbvcxz nbvcxz = new Nbvcxz();
+        final List<String> passwords = Arrays.asList("correcthorsebatterystaple", "temppass22", "correcthorsebatterystaple", "baseball2014", "temppass22");
+
+        final ExecutorService executor = Executors.newFixedThreadPool(2);
+        try
+        {
+            final List<Result> results = nbvcxz.estimateAll(passwords, executor);
+            Assert.assertEquals(passwords.size(), results.size());
+            for (int i = 0; i < passwords.size(); i++)
+            {
+                Assert.assertEquals(passwords.get(i), results.get(i).getPassword());
+                Assert.assertEquals(nbvcxz.estimate(passwords.get(i)).getEntropy(), results.get(i).getEntropy(), 0.000000001);
+            }
+            // Copies of a password share one estimate
+            Assert.assertSame(results.get(0), results.get(2));
+            Assert.assertSame(results.get(1), results.get(4));
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+
+        // Results come back in order, and copies are only estimated once while they are pending together
+        final AtomicInteger executed = new AtomicInteger();
+        final Executor counting = new Executor()
+        {
+            @Override
+            public void execute(Runnable command)
+            {
+                executed.incrementAndGet();
+                command.run();
+            }
+        };
+        final List<String> delivered = new ArrayList<>();
+        nbvcxz.estimateAll(Arrays.asList("a", "a", "b", "a", "b").iterator(), counting, 3, new ResultCallback()
+        {
+            @Override
+            public void onResult(String password, Result result)
+            {
+                Assert.assertEquals(password, result.getPassword());
+                delivered.add(password);
+            }
+        });
+        Assert.assertEquals(Arrays.asList("a", "a", "b", "a", "b"), delivered);
+        Assert.assertEquals(2, executed.get());
+
+        // Long passwords split into windows on a pool with a single worker, which runs the windows itself
+        final Nbvcxz split = new Nbvcxz(new ConfigurationBuilder()
+                .setMaxLength(20)
+                .setSplitLongPasswords(true)
+                .createConfiguration());
+        final List<String> long_passwords = Arrays.asList("correcthorsebatterystaplecorrecthorsebatterystaple",
+                "forgetthatchristmaspartytheotheryear", "thereisneveragoodmondaythereisneveragoodmonday");
+        final ForkJoinPool pool = new ForkJoinPool(1);
+        try
+        {
+            final List<Result> results = split.estimateAll(long_passwords, pool);
+            for (int i = 0; i < long_passwords.size(); i++)
+            {
+                Assert.assertEquals(split.estimate(long_passwords.get(i)).getEntropy(), results.get(i).getEntropy(), 0.000000001);
+            }
+        }
+        finally
+        {
+            pool.shutdown();
+        }
+    }
+
+    /**
+     * Test of estimate method with a deadline, of class Nbvcxz.
+     */
+    @Test
+    public void testEstimateDeadline()
+    {
+        final Nbvcxz nbvcxz = new Nbvcxz();
+
+        Result result = nbvcxz.estimate("correcthorsebatterystaple", Deadline.after(1, TimeUnit.MINUTES));
+        Assert.assertFalse(result.isCutShort());
+        Assert.assertEquals(16.60965490131509D, result.getEntropy(), 0.000000001);
+
+        // Nothing can be matched once the deadline is cancelled, so the whole password is brute forced
+        Deadline deadline = Deadline.none();
+        deadline.cancel();
+        result = nbvcxz.estimate("correcthorsebatterystaple", deadline);
+        Assert.assertTrue(result.isCutShort());
+        Assert.assertTrue(result.getCutShortPhases().contains(EstimationPhase.MATCHING));
+        Assert.assertTrue(result.isRandom());
+        Assert.assertEquals("correcthorsebatterystaple", result.getPassword());
+
+        // The deadline of the estimate only applies while it is running
+        Assert.assertFalse(Deadline.current().isExpired());
+    }
+
+    /**
+     * Test of estimateAsync method, of class Nbvcxz.
+     */
+    @Test
+    public void testEstimateAsync() throws Exception
+    {
+        final Nbvcxz nbvcxz = new Nbvcxz();
+        Assert.assertEquals(16.60965490131509D, nbvcxz.estimateAsync("correcthorsebatterystaple").get().getEntropy(), 0.000000001);
+
+        // A matcher which runs until the estimate is cancelled
+        final CountDownLatch started = new CountDownLatch(1);
+        final CountDownLatch stopped = new CountDownLatch(1);
+        final List<PasswordMatcher> matchers = new ArrayList<>();
+        matchers.add(new PasswordMatcher()
+        {
+            @Override
+            public List<Match> match(Configuration configuration, String password)
+            {
+                started.countDown();
+                final long stop_time = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+                while (!Deadline.current().isExpired() && System.nanoTime() < stop_time)
+                {
+                    Thread.yield();
+                }
+                if (Deadline.current().isCancelled())
+                {
+                    stopped.countDown();
+                }
+                return new ArrayList<>();
+            }
+        });
+        final Nbvcxz blocking = new Nbvcxz(new ConfigurationBuilder().setPasswordMatchers(matchers).createConfiguration());
+
+        final ExecutorService executor = Executors.newSingleThreadExecutor();
+        try
+        {
+            final Future<Result> future = blocking.estimateAsync("correcthorsebatterystaple", executor);
+            Assert.assertTrue(started.await(10, TimeUnit.SECONDS));
+            Assert.assertTrue(future.cancel(false));
+            Assert.assertTrue(stopped.await(10, TimeUnit.SECONDS));
+            Assert.assertTrue(future.isCancelled());
+        }
+        finally
+        {
+            executor.shutdown();
+        }
+    }
+
+    /**
+     * Test of estimate method with a work budget for the combination algorithm, of class Nbvcxz.
+     */
+    @Test
+    public void testEstimateWorkBudget()
+    {
+        final String password = "forgetthatchristmaspartytheotheryear";
+
+        // With the timeout disabled, the faster, less accurate algorithm is always used
+        final Nbvcxz fallback = new Nbvcxz(new ConfigurationBuilder()
+                .setCombinationAlgorithmTimeout(0L)
+                .createConfiguration());
+        final double fallback_entropy = fallback.estimate(password).getEntropy();
+
+        // The budget is used instead of the timeout, so a large one finishes even with the timeout disabled
+        final Nbvcxz large_budget = new Nbvcxz(new ConfigurationBuilder()
+                .setCombinationAlgorithmTimeout(0L)
+                .setCombinationAlgorithmWorkBudget(Long.MAX_VALUE)
+                .createConfiguration());
+        Result result = large_budget.estimate(password);
+        Assert.assertFalse(result.isCutShort());
+        Assert.assertEquals(42.69087661112469D, result.getEntropy(), 0.000000001);
+
+        // A budget which is used up falls back, no matter how long the timeout is
+        final Nbvcxz small_budget = new Nbvcxz(new ConfigurationBuilder()
+                .setCombinationAlgorithmTimeout(1000000L)
+                .setCombinationAlgorithmWorkBudget(1L)
+                .createConfiguration());
+        result = small_budget.estimate(password);
+        Assert.assertTrue(result.getCutShortPhases().contains(EstimationPhase.COMBINATION));
+        Assert.assertEquals(fallback_entropy, result.getEntropy(), 0.000000001);
+
+        // Every worker of the parallel search counts on the same budget, so it can't be overshot
+        final Nbvcxz parallel_budget = new Nbvcxz(new ConfigurationBuilder()
+                .setCombinationAlgorithm(CombinationAlgorithm.PARALLEL)
+                .setCombinationAlgorithmWorkBudget(1L)
+                .createConfiguration());
+        result = parallel_budget.estimate(password);
+        Assert.assertTrue(result.getCutShortPhases().contains(EstimationPhase.COMBINATION));
+        Assert.assertEquals(fallback_entropy, result.getEntropy(), 0.000000001);
+
+        // A budget without a timeout still runs the algorithm which was asked for
+        final Nbvcxz dynamic_budget = new Nbvcxz(new ConfigurationBuilder()
+                .setCombinationAlgorithm(CombinationAlgorithm.DYNAMIC)
+                .setCombinationAlgorithmTimeout(0L)
+                .setCombinationAlgorithmWorkBudget(1L)
+                .createConfiguration());
+        final Nbvcxz dynamic = new Nbvcxz(new ConfigurationBuilder()
+                .setCombinationAlgorithm(CombinationAlgorithm.DYNAMIC)
+                .createConfiguration());
+        result = dynamic_budget.estimate(password);
+        Assert.assertEquals(EstimationStrategy.EXHAUSTIVE, result.getStrategy());
+        Assert.assertEquals(dynamic.estimate(password).getEntropy(), result.getEntropy(), 0.000000001);
+    }
+
+    /**
+     * Test of meetsMinimumEntropy method, of class Nbvcxz.
+     */
+    @Test
+    public void testMeetsMinimumEntropy()
+    {
+        final String[] passwords = {"correcthorsebatterystaple", "a.b.c.defy", "temppass22", "ScoRpi0ns", "thereisneveragoodmonday", "6c891879ed0a0bbf701d5ca8af39a766", "x"};
+
+        for (final double minimum_entropy : new double[]{0D, 10D, 20D, 35D, 50D, 125D})
+        {
+            final Nbvcxz nbvcxz = new Nbvcxz(new ConfigurationBuilder()
+                    .setMinimumEntropy(minimum_entropy)
+                    .createConfiguration());
+            for (final String password : passwords)
+            {
+                Assert.assertEquals(password + " " + minimum_entropy, nbvcxz.estimate(password).isMinimumEntropyMet(), nbvcxz.meetsMinimumEntropy(password));
+            }
+        }
+
+        // Checks are counted like any other estimate, and checks settled without picking a combination are bounded
+        final Nbvcxz nbvcxz = new Nbvcxz();
+        final Nbvcxz no_minimum = new Nbvcxz(new ConfigurationBuilder()
+                .setMinimumEntropy(0D)
+                .createConfiguration());
+        final long estimate_count = Nbvcxz.getEstimateCount();
+        final long bounded_count = Nbvcxz.getStrategyCount(EstimationStrategy.BOUNDED);
+        nbvcxz.meetsMinimumEntropy("6c891879ed0a0bbf701d5ca8af39a766");
+        nbvcxz.meetsMinimumEntropy("correcthorsebatterystaple");
+        no_minimum.meetsMinimumEntropy("correcthorsebatterystaple");
+        Assert.assertTrue(Nbvcxz.getEstimateCount() >= estimate_count + 3);
+        Assert.assertTrue(Nbvcxz.getStrategyCount(EstimationStrategy.BOUNDED) >= bounded_count + 2);
+    }
+
+    /**
+     * Test of the strategy and counters for estimates, of class Nbvcxz.
+     */
+    @Test
+    public void testEstimateStrategy()
+    {
+        final Nbvcxz nbvcxz = new Nbvcxz();
+        final Nbvcxz fallback = new Nbvcxz(new ConfigurationBuilder()
+                .setCombinationAlgorithmTimeout(0L)
+                .createConfiguration());
+
+        final long estimate_count = Nbvcxz.getEstimateCount();
+        final long fallback_count = Nbvcxz.getStrategyCount(EstimationStrategy.FALLBACK);
+
+        Result result = nbvcxz.estimate("correcthorsebatterystaple");
+        Assert.assertEquals(EstimationStrategy.EXHAUSTIVE, result.getStrategy());
+        Assert.assertFalse(result.isApproximate());
+        Assert.assertTrue(result.getPhaseNanos().containsKey(EstimationPhase.MATCHING));
+        Assert.assertTrue(result.getPhaseNanos().containsKey(EstimationPhase.COMBINATION));
+
+        result = nbvcxz.estimate("6c891879ed0a0bbf701d5ca8af39a766");
+        Assert.assertEquals(EstimationStrategy.RANDOM, result.getStrategy());
+        Assert.assertFalse(result.isApproximate());
+
+        result = fallback.estimate("correcthorsebatterystaple");
+        Assert.assertEquals(EstimationStrategy.FALLBACK, result.getStrategy());
+        Assert.assertTrue(result.isApproximate());
+
+        Assert.assertTrue(Nbvcxz.getEstimateCount() >= estimate_count + 3);
+        Assert.assertTrue(Nbvcxz.getStrategyCount(EstimationStrategy.FALLBACK) >= fallback_count + 1);
+    }
+
     @Test
     public void testEstimateConcurrently()
     {
@@ -7,10 +7,15 @@ import me.gosimple.nbvcxz.resources.ConfigurationBuilder;
 import me.gosimple.nbvcxz.resources.Dictionary;
 import me.gosimple.nbvcxz.resources.DictionaryBuilder;
 import org.junit.Assert;
+import org.junit.Assume;
 import org.junit.Test;
 
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 
 /**
  * @author Adam Brusselback
@@ -364,6 +369,91 @@ public class DictionaryMatcherTest
                 foundShortDictMatch);
     }
 
+    /**
+     * Test of match method, of class DictionaryMatcher, that the parts of the password are looked up without being
+     * copied, so the values of the matches are the words of the dictionary.
+     */
+    @Test
+    public void testDictionaryMatchUsesDictionaryWords()
+    {
+        final String word = new String("password");
+        final Map<String, Integer> words = new HashMap<>();
+        words.put(word, 1);
+        final List<Dictionary> dictionaries = new ArrayList<>();
+        dictionaries.add(new Dictionary("test_dict", words, false));
+        final Configuration configuration = new ConfigurationBuilder()
+                .setDictionaries(dictionaries)
+                .setDistanceCalc(false)
+                .createConfiguration();
+
+        PasswordMatcher matcher = new DictionaryMatcher();
+        for (String password : new String[]{"123Password", "drowssap!", "p4ssw0rd", "dr0ws$ap"})
+        {
+            final List<Match> matches = matcher.match(configuration, password);
+            Assert.assertEquals(password, 1, matches.size());
+            Assert.assertSame(password, word, ((DictionaryMatch) matches.get(0)).getDictionaryValue());
+        }
+    }
+
+    /**
+     * Test of match method, of class DictionaryMatcher, that only parts found in a dictionary are cached.
+     */
+    @Test
+    public void testDictionaryMatchCachesOnlyHits()
+    {
+        final Map<String, Integer> words = new HashMap<>();
+        words.put("pass", 1);
+        final Dictionary dictionary = new Dictionary("test_dict", words, false);
+        final List<Dictionary> dictionaries = new ArrayList<>();
+        dictionaries.add(dictionary);
+        final Configuration configuration = new ConfigurationBuilder()
+                .setDictionaries(dictionaries)
+                .setDictionaryCacheSize(100)
+                .createConfiguration();
+
+        PasswordMatcher matcher = new DictionaryMatcher();
+        Assert.assertEquals(1, matcher.match(configuration, "zqPass").size());
+        Assert.assertEquals(1, configuration.getDictionaryCache(dictionary).size());
+        Assert.assertNotNull(configuration.getDictionaryCache(dictionary).get("pass"));
+        Assert.assertNull(configuration.getDictionaryCache(dictionary).get("zq"));
+
+        // The cached hit gives the same match
+        Assert.assertEquals(1, matcher.match(configuration, "zqPass").size());
+    }
+
+    /**
+     * Test of the memory allocated by the match method, of class DictionaryMatcher.
+     */
+    @Test
+    public void testMatchAllocation()
+    {
+        System.out.println("Test of the memory allocated by the match method, of class DictionaryMatcher");
+
+        final ThreadMXBean thread_bean = ManagementFactory.getThreadMXBean();
+        Assume.assumeTrue(thread_bean instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean bean = (com.sun.management.ThreadMXBean) thread_bean;
+        Assume.assumeTrue(bean.isThreadAllocatedMemorySupported() && bean.isThreadAllocatedMemoryEnabled());
+
+        final PasswordMatcher matcher = new DictionaryMatcher();
+        final String password = "zqxjvkwpfgbhmyzqxjvkwpfg";
+        final long thread_id = Thread.currentThread().getId();
+        for (int i = 0; i < 500; i++)
+        {
+            matcher.match(configuration, password);
+        }
+        final long start = bean.getThreadAllocatedBytes(thread_id);
+        for (int i = 0; i < 100; i++)
+        {
+            matcher.match(configuration, password);
+        }
+        final long allocated = (bean.getThreadAllocatedBytes(thread_id) - start) / 100;
+
+        // Parts of the password are looked up in place, so there should be no copy of each part to pay for.
+        // Copying every part cost close to 300 bytes per part, so this leaves plenty of room for noise.
+        final int parts = password.length() * (password.length() + 1) / 2;
+        Assert.assertTrue("Allocated " + allocated + " bytes", allocated < parts * 128L);
+    }
+
     private int calcHash(List<Match> matches)
     {
         int calculatedHash = 0;
@@ -62,4 +62,26 @@ public class AdjacencyGraphUtilTest
         }
     }
 
+    /**
+     * Test of isNeighbor method, of class AdjacencyGraph, against getNeighbors of class AdjacencyGraphUtil.
+     */
+    @Test
+    public void testIsNeighbor()
+    {
+        System.out.println("Test of isNeighbor method, of class AdjacencyGraph");
+
+        AdjacencyGraph qwerty = new AdjacencyGraph("Qwerty", AdjacencyGraphUtil.qwerty);
+        for (char key = 0; key < 200; key++)
+        {
+            for (char character = 0; character < 200; character++)
+            {
+                Assert.assertEquals(AdjacencyGraphUtil.getNeighbors(qwerty, key).contains(character), qwerty.isNeighbor(key, character));
+            }
+        }
+        Assert.assertTrue(qwerty.isNeighbor('g', 'T'));
+        Assert.assertFalse(qwerty.isNeighbor('g', 'p'));
+        Assert.assertFalse(qwerty.isNeighbor('\u00e9', 'e'));
+        Assert.assertEquals(AdjacencyGraphUtil.qwerty.size(), qwerty.getKeyCount());
+    }
+
 }
@@ -0,0 +1,58 @@
+package me.gosimple.nbvcxz.resources;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * @author Adam Brusselback
+ */
+public class DeadlineTest
+{
+    /**
+     * Test of isExpired method, of class Deadline.
+     */
+    @Test
+    public void testIsExpired()
+    {
+        Assert.assertTrue(Deadline.after(0, TimeUnit.NANOSECONDS).isExpired());
+        Assert.assertTrue(Deadline.after(-1, TimeUnit.SECONDS).isExpired());
+
+        Deadline deadline = Deadline.after(1, TimeUnit.MINUTES);
+        Assert.assertFalse(deadline.isExpired());
+        Assert.assertTrue(deadline.getRemainingNanos() > 0);
+        deadline.cancel();
+        Assert.assertTrue(deadline.isCancelled());
+        Assert.assertTrue(deadline.isExpired());
+        Assert.assertEquals(0, deadline.getRemainingNanos());
+
+        Deadline none = Deadline.none();
+        Assert.assertFalse(none.isExpired());
+        Assert.assertEquals(Long.MAX_VALUE, none.getRemainingNanos());
+    }
+
+    /**
+     * Test of setCurrent method, of class Deadline.
+     */
+    @Test
+    public void testCurrent()
+    {
+        Assert.assertFalse(Deadline.current().isExpired());
+
+        Deadline deadline = Deadline.none();
+        Assert.assertNull(Deadline.setCurrent(deadline));
+        Assert.assertSame(deadline, Deadline.current());
+        Assert.assertSame(deadline, Deadline.setCurrent(null));
+        Assert.assertNotSame(deadline, Deadline.current());
+    }
+
+    /**
+     * Test of cancel method when there is no deadline, of class Deadline.
+     */
+    @Test(expected = IllegalStateException.class)
+    public void testCancelCurrentWithoutDeadline()
+    {
+        Deadline.current().cancel();
+    }
+}
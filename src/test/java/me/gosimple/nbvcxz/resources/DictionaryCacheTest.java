@@ -0,0 +1,68 @@
+package me.gosimple.nbvcxz.resources;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author Adam Brusselback
+ */
+public class DictionaryCacheTest
+{
+    /**
+     * Test of get and put, of class DictionaryCache.
+     */
+    @Test
+    public void testGenerations()
+    {
+        DictionaryCache cache = new DictionaryCache(2);
+        List<DictionaryHit> pass = Collections.singletonList(new DictionaryHit("pass", 10, false, false));
+        List<DictionaryHit> drow = Collections.singletonList(new DictionaryHit("word", 20, true, false));
+        List<DictionaryHit> word = Collections.singletonList(new DictionaryHit("word", 20, false, false));
+        List<DictionaryHit> love = Collections.singletonList(new DictionaryHit("love", 30, false, false));
+
+        Assert.assertNull(cache.get("pass"));
+        cache.put("pass", pass);
+        cache.put("drow", drow);
+        Assert.assertSame(pass, cache.get("pass"));
+        Assert.assertSame(drow, cache.get("drow"));
+
+        // Filling the newer generation again drops the oldest, but parts looked up since are kept
+        cache.put("word", word);
+        Assert.assertSame(pass, cache.get("pass"));
+        cache.put("love", love);
+        Assert.assertSame(pass, cache.get("pass"));
+        Assert.assertNull(cache.get("drow"));
+        Assert.assertTrue(cache.size() <= 4);
+
+        cache.clear();
+        Assert.assertEquals(0, cache.size());
+        Assert.assertNull(cache.get("pass"));
+    }
+
+    /**
+     * Test that parts with nothing found aren't remembered.
+     */
+    @Test
+    public void testMissesNotCached()
+    {
+        DictionaryCache cache = new DictionaryCache(2);
+        cache.put("zzq", Collections.<DictionaryHit>emptyList());
+        Assert.assertNull(cache.get("zzq"));
+        Assert.assertEquals(0, cache.size());
+    }
+
+    /**
+     * Test that a size of 0 disables the cache.
+     */
+    @Test
+    public void testDisabled()
+    {
+        DictionaryCache cache = new DictionaryCache(0);
+        cache.put("pass", Collections.<DictionaryHit>emptyList());
+        Assert.assertNull(cache.get("pass"));
+        Assert.assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,83 @@
+package me.gosimple.nbvcxz.resources;
+
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * @author Adam Brusselback
+ */
+public class DictionaryTest
+{
+
+    /**
+     * Test of lookup method, of class Dictionary.
+     */
+    @Test
+    public void testLookup()
+    {
+        System.out.println("Test of lookup method, of class Dictionary");
+
+        final String word = new String("dragon");
+        final Map<String, Integer> words = new HashMap<>();
+        words.put(word, 1);
+        words.put("drag", 2);
+        words.put("", 3);
+        final Dictionary dictionary = new Dictionary("test_dict", words, false);
+
+        final char[] buffer = "xxdragonxx".toCharArray();
+        Assert.assertSame(word, dictionary.lookup(buffer, 2, 6));
+        Assert.assertEquals("drag", dictionary.lookup(buffer, 2, 4));
+        Assert.assertEquals("", dictionary.lookup(buffer, 5, 0));
+        Assert.assertNull(dictionary.lookup(buffer, 2, 5));
+        Assert.assertNull(dictionary.lookup(buffer, 0, 8));
+        Assert.assertNull(new Dictionary("empty", new HashMap<String, Integer>(), false).lookup(buffer, 2, 6));
+    }
+
+    /**
+     * Test of getRank method, of class Dictionary.
+     */
+    @Test
+    public void testGetRank()
+    {
+        System.out.println("Test of getRank method, of class Dictionary");
+
+        final Map<String, Integer> words = new HashMap<>();
+        words.put("dragon", 1);
+        words.put("drag", 2);
+        final Dictionary dictionary = new Dictionary("test_dict", words, false);
+        Assert.assertEquals(Integer.valueOf(1), dictionary.getRank("dragon"));
+        Assert.assertEquals(Integer.valueOf(2), dictionary.getRank("drag"));
+        Assert.assertNull(dictionary.getRank("dra"));
+
+        // Changes to the map after the dictionary is created are not used, the same as for lookup
+        words.put("drag", 5);
+        words.put("dra", 3);
+        Assert.assertEquals(Integer.valueOf(2), dictionary.getRank("drag"));
+        Assert.assertNull(dictionary.getRank("dra"));
+        Assert.assertNull(dictionary.lookup("dra".toCharArray(), 0, 3));
+    }
+
+    /**
+     * Test of getDigest method, of class Dictionary.
+     */
+    @Test
+    public void testGetDigest()
+    {
+        System.out.println("Test of getDigest method, of class Dictionary");
+
+        final Map<String, Integer> words = new HashMap<>();
+        words.put("dragon", 1);
+        words.put("drag", 2);
+        final String digest = new Dictionary("test_dict", words, false).getDigest();
+        Assert.assertEquals(64, digest.length());
+        Assert.assertEquals(digest, new Dictionary("other_dict", new HashMap<>(words), true).getDigest());
+
+        words.put("drag", 3);
+        Assert.assertNotEquals(digest, new Dictionary("test_dict", words, false).getDigest());
+        words.remove("drag");
+        Assert.assertNotEquals(digest, new Dictionary("test_dict", words, false).getDigest());
+    }
+}
@@ -204,6 +204,27 @@ public class LocaleTest {
         Assert.assertEquals(new Locale("fr"), frenchConfig.getLocale());
     }
 
+    /**
+     * Test that configurations with the same locale share their resource bundles
+     */
+    @Test
+    public void testResourceBundlesShared() {
+        Configuration first = new ConfigurationBuilder()
+                .setLocale(new Locale("fr"))
+                .createConfiguration();
+        Configuration second = new ConfigurationBuilder()
+                .setLocale(new Locale("fr"))
+                .createConfiguration();
+        Configuration german = new ConfigurationBuilder()
+                .setLocale(new Locale("de"))
+                .createConfiguration();
+
+        Assert.assertSame(first.getMainResource(), second.getMainResource());
+        Assert.assertSame(first.getFeedbackResource(), second.getFeedbackResource());
+        Assert.assertNotSame(first.getFeedbackResource(), german.getFeedbackResource());
+        Assert.assertEquals("de", german.getFeedbackResource().getLocale().toString());
+    }
+
     /**
      * Test that feedback keys are consistent across locales
      */
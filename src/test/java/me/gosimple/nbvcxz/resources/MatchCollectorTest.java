@@ -0,0 +1,42 @@
+package me.gosimple.nbvcxz.resources;
+
+import me.gosimple.nbvcxz.matching.match.Match;
+import me.gosimple.nbvcxz.matching.match.SeparatorMatch;
+import me.gosimple.nbvcxz.matching.match.YearMatch;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * @author Adam Brusselback
+ */
+public class MatchCollectorTest
+{
+    final Configuration configuration = new ConfigurationBuilder().createConfiguration();
+
+    /**
+     * Test of add method, of class MatchCollector.
+     */
+    @Test
+    public void testAdd()
+    {
+        // Matches tied for the same span are all kept, and a separator match has less entropy than a year match,
+        // so it should replace both of them
+        Match year = new YearMatch("2019", configuration, 2, 5);
+        Match other_year = new YearMatch("2019", configuration, 2, 5);
+        Match separator = new SeparatorMatch("-", configuration, 0, 0);
+        Match cheaper = new SeparatorMatch("2019", configuration, 2, 5);
+
+        MatchCollector collector = new MatchCollector(6);
+        collector.addAll(Arrays.asList(year, separator, other_year));
+
+        List<Match> matches = collector.getMatches();
+        Assert.assertEquals(Arrays.asList(year, separator, other_year), matches);
+
+        collector.add(cheaper);
+        matches = collector.getMatches();
+        Assert.assertEquals(Arrays.asList(separator, cheaper), matches);
+    }
+}
@@ -0,0 +1,55 @@
+package me.gosimple.nbvcxz.resources;
+
+import me.gosimple.nbvcxz.matching.match.Match;
+import me.gosimple.nbvcxz.matching.match.SeparatorMatch;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Collections;
+
+/**
+ * @author Adam Brusselback
+ */
+public class MatchGraphTest
+{
+    final Configuration configuration = new ConfigurationBuilder().createConfiguration();
+
+    /**
+     * Test of the successors and seeds, of class MatchGraph.
+     */
+    @Test
+    public void testGraph()
+    {
+        // Password "abcdefgh"
+        Match abc = new SeparatorMatch("abc", configuration, 0, 2);
+        Match bcd = new SeparatorMatch("bcd", configuration, 1, 3);
+        Match de = new SeparatorMatch("de", configuration, 3, 4);
+        Match ef = new SeparatorMatch("ef", configuration, 4, 5);
+        Match fgh = new SeparatorMatch("fgh", configuration, 5, 7);
+
+        MatchGraph graph = new MatchGraph(8, Arrays.asList(fgh, de, abc, ef, bcd));
+
+        Assert.assertEquals(Arrays.asList(abc, bcd, de, ef, fgh), graph.getMatches());
+        Assert.assertEquals(Arrays.asList(abc, bcd), graph.getSeeds());
+
+        // "fgh" can't follow "abc", because "de" fits between them
+        Assert.assertEquals(Arrays.asList(de, ef), graph.getSuccessors(0));
+        Assert.assertEquals(Arrays.asList(ef, fgh), graph.getSuccessors(1));
+        Assert.assertEquals(Collections.singletonList(fgh), graph.getSuccessors(2));
+        Assert.assertTrue(graph.isLeaf(3));
+        Assert.assertTrue(graph.isLeaf(4));
+    }
+
+    /**
+     * Test of a graph without matches, of class MatchGraph.
+     */
+    @Test
+    public void testEmptyGraph()
+    {
+        MatchGraph graph = new MatchGraph(8, Collections.<Match>emptyList());
+
+        Assert.assertEquals(0, graph.size());
+        Assert.assertEquals(0, graph.getSeedCount());
+    }
+}
@@ -65,4 +65,23 @@ public class ScoreTest
         }
     }
 
+    /**
+     * Test of getBasicScore method for an entropy, of Result class.
+     */
+    @Test
+    public void testBasicScoreFromEntropy()
+    {
+        final Nbvcxz nbvcxz = new Nbvcxz();
+        for (String password : new String[]{"p4ssword", "1qazxsw2", "correcthorsebatterystaple", "helpimaliveinhere", "a.b.c.defy", "6c891879ed0a0bbf701d5ca8af39a766"})
+        {
+            Assert.assertEquals(password, nbvcxz.estimate(password).getBasicScore(), Result.getBasicScore(nbvcxz.estimateEntropy(password)));
+        }
+
+        // Guesses are rounded before comparing, so just under 999.5 guesses is still a 0
+        Assert.assertEquals(0, Result.getBasicScore(Math.log(999.49) / Math.log(2)));
+        Assert.assertEquals(1, Result.getBasicScore(Math.log(999.51) / Math.log(2)));
+        Assert.assertEquals(4, Result.getBasicScore(Double.MAX_VALUE));
+        Assert.assertEquals(0, Result.getBasicScore(0));
+    }
+
 }